@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+
+/**
+ * A pull-style source of arguments for {@link DescribableModel#instantiate(ArgumentReader, hudson.model.TaskListener)},
+ * typically backed by a streaming JSON or YAML parser,
+ * so that a document need not be parsed into nested {@link java.util.Map}s and {@link java.util.List}s first.
+ *
+ * <p>
+ * The structure is the same as that of the map passed to {@link DescribableModel#instantiate(java.util.Map, hudson.model.TaskListener)}:
+ * an object consists of names each followed by a value,
+ * and a value is an object, an array of values, or a scalar.
+ * {@link #peek} tells what comes next, and the other methods consume it.
+ */
+public interface ArgumentReader {
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        /**
+         * The name of the next argument of the current object.
+         */
+        NAME,
+        /**
+         * A scalar.
+         */
+        VALUE
+    }
+
+    /**
+     * Tells what comes next without consuming it.
+     */
+    Token peek() throws IOException;
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    String nextName() throws IOException;
+
+    /**
+     * Consumes a scalar, such as a {@link String}, {@link Number}, {@link Boolean}, or {@code null}.
+     */
+    @CheckForNull Object nextValue() throws IOException;
+}
@@ -0,0 +1,209 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.jenkinsci.plugins.structs.describable.UninstantiatedDescribable.ANONYMOUS_KEY;
+
+/**
+ * Computes the differences between two {@link UninstantiatedDescribable} trees,
+ * such as two versions of the configuration of a job, as a list of {@link Edit}s at property paths
+ * like {@code publishers[2].recipients}.
+ *
+ * <p>
+ * The trees are walked in step.
+ * Arguments of a struct are visited in the order of the parameters of its {@linkplain UninstantiatedDescribable#getModel() model},
+ * followed by any others in alphabetical order,
+ * and an argument given through {@link UninstantiatedDescribable#ANONYMOUS_KEY} is taken as the sole required parameter.
+ * Structs of different types, by {@linkplain UninstantiatedDescribable#getSymbol() symbol}, {@linkplain UninstantiatedDescribable#getKlass() class}
+ * or model, are reported as a change of the whole struct.
+ * {@linkplain UninstantiatedDescribable#freeze() Frozen} structs cache their hash codes and {@linkplain UninstantiatedDescribable#fingerprint() fingerprints},
+ * so equal subtrees of trees which were frozen before being compared are skipped without being walked again,
+ * and subtrees shared through {@linkplain UninstantiatedDescribable#INTERNING interning} are skipped at once.
+ */
+public final class DescribableDiff {
+
+    private DescribableDiff() {}
+
+    /**
+     * One difference.
+     */
+    public static final class Edit {
+
+        public enum Kind {
+            /**
+             * An argument or list element which is only in the new tree.
+             */
+            ADDED,
+            /**
+             * An argument or list element which is only in the old tree.
+             */
+            REMOVED,
+            /**
+             * A value which differs.
+             */
+            CHANGED
+        }
+
+        private final Kind kind;
+        private final String path;
+        private final Object before;
+        private final Object after;
+
+        Edit(Kind kind, String path, @CheckForNull Object before, @CheckForNull Object after) {
+            this.kind = kind;
+            this.path = path;
+            this.before = before;
+            this.after = after;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Names of arguments separated by {@code .}, with indices of list elements in brackets;
+         * empty for the root.
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * The old value, or null if {@link Kind#ADDED}.
+         */
+        public @CheckForNull Object getBefore() {
+            return before;
+        }
+
+        /**
+         * The new value, or null if {@link Kind#REMOVED}.
+         */
+        public @CheckForNull Object getAfter() {
+            return after;
+        }
+
+        /**
+         * For example {@code publishers[2].recipients changed}. Values are left out, as they could be secret.
+         */
+        @Override
+        public String toString() {
+            String k = kind.name().toLowerCase(Locale.ENGLISH);
+            return path.isEmpty() ? k : path + ' ' + k;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Edit edit = (Edit) o;
+            return kind == edit.kind && path.equals(edit.path) && Objects.equals(before, edit.before) && Objects.equals(after, edit.after);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, path, before, after);
+        }
+    }
+
+    /**
+     * Lists the differences between two trees.
+     *
+     * @return edits in the order of the walk; empty if the trees are equal
+     */
+    public static List<Edit> diff(UninstantiatedDescribable before, UninstantiatedDescribable after) {
+        List<Edit> edits = new ArrayList<>();
+        struct("", before, after, edits);
+        return Collections.unmodifiableList(edits);
+    }
+
+    private static void struct(String path, UninstantiatedDescribable a, UninstantiatedDescribable b, List<Edit> edits) {
+        if (a == b || identicalFrozen(a, b)) {
+            return;
+        }
+        DescribableModel<?> am = a.getModel(), bm = b.getModel();
+        if (!Objects.equals(a.getSymbol(), b.getSymbol()) || !Objects.equals(a.getKlass(), b.getKlass())
+                || am != null && bm != null && am.getType() != bm.getType()) {
+            edits.add(new Edit(Edit.Kind.CHANGED, path, a, b));
+            return;
+        }
+        DescribableModel<?> model = am != null ? am : bm;
+        Map<String,?> aa = arguments(a, model), ba = arguments(b, model);
+        Set<String> names = new LinkedHashSet<>();
+        if (model != null) {
+            for (DescribableParameter p : model.getParameters()) {
+                names.add(p.getName());
+            }
+        }
+        Set<String> others = new TreeSet<>(aa.keySet());
+        others.addAll(ba.keySet());
+        names.addAll(others);
+        for (String name : names) {
+            boolean inA = aa.containsKey(name), inB = ba.containsKey(name);
+            String p = path.isEmpty() ? name : path + '.' + name;
+            if (inA && inB) {
+                value(p, aa.get(name), ba.get(name), edits);
+            } else if (inA) {
+                edits.add(new Edit(Edit.Kind.REMOVED, p, aa.get(name), null));
+            } else if (inB) {
+                edits.add(new Edit(Edit.Kind.ADDED, p, null, ba.get(name)));
+            }
+        }
+    }
+
+    private static boolean identicalFrozen(UninstantiatedDescribable a, UninstantiatedDescribable b) {
+        // the cached hash codes rule out most differences; the cached fingerprints confirm the rest
+        if (!a.isFrozen() || !b.isFrozen() || a.hashCode() != b.hashCode()) {
+            return false;
+        }
+        try {
+            return a.fingerprint().equals(b.fingerprint());
+        } catch (RuntimeException x) {
+            // a value which cannot be fingerprinted, or a Secret outside Jenkins; equality compares nested hash codes first
+            return a.equals(b);
+        }
+    }
+
+    /**
+     * Arguments with {@link UninstantiatedDescribable#ANONYMOUS_KEY} replaced by the name of the parameter it stands for.
+     */
+    private static Map<String,?> arguments(UninstantiatedDescribable ud, @CheckForNull DescribableModel<?> model) {
+        Map<String,?> arguments = ud.getArguments();
+        if (model != null && arguments.size() == 1 && arguments.containsKey(ANONYMOUS_KEY)) {
+            DescribableParameter p = model.getSoleRequiredParameter();
+            if (p != null) {
+                return Collections.singletonMap(p.getName(), arguments.get(ANONYMOUS_KEY));
+            }
+        }
+        return arguments;
+    }
+
+    private static void value(String path, @CheckForNull Object a, @CheckForNull Object b, List<Edit> edits) {
+        // see DescribableParameter.uncoerce for possible variety
+        if (a instanceof UninstantiatedDescribable && b instanceof UninstantiatedDescribable) {
+            struct(path, (UninstantiatedDescribable) a, (UninstantiatedDescribable) b, edits);
+        } else if (a instanceof List && b instanceof List) {
+            List<?> al = (List<?>) a, bl = (List<?>) b;
+            int common = Math.min(al.size(), bl.size());
+            for (int i = 0; i < common; i++) {
+                value(path + '[' + i + ']', al.get(i), bl.get(i), edits);
+            }
+            for (int i = common; i < al.size(); i++) {
+                edits.add(new Edit(Edit.Kind.REMOVED, path + '[' + i + ']', al.get(i), null));
+            }
+            for (int i = common; i < bl.size(); i++) {
+                edits.add(new Edit(Edit.Kind.ADDED, path + '[' + i + ']', null, bl.get(i)));
+            }
+        } else if (!Objects.equals(a, b)) {
+            edits.add(new Edit(Edit.Kind.CHANGED, path, a, b));
+        }
+    }
+}
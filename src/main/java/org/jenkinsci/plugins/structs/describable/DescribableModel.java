@@ -15,6 +15,7 @@ import hudson.model.TaskListener;
 import hudson.util.LogTaskListener;
 import hudson.util.Secret;
 import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
 import org.apache.commons.io.IOUtils;
 import org.codehaus.groovy.reflection.ReflectionCache;
 import org.jenkinsci.Symbol;
@@ -25,6 +26,7 @@ import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.ClassDescriptor;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.NoStaplerConstructorException;
 import org.kohsuke.stapler.lang.Klass;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
@@ -38,23 +40,32 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import static org.jenkinsci.plugins.structs.describable.UninstantiatedDescribable.*;
 
@@ -78,6 +89,10 @@ import static org.jenkinsci.plugins.structs.describable.UninstantiatedDescribabl
  *         {@linkplain #getHelp() access help file}
  * </ul>
  *
+ * A {@link Record} is handled the same way when its canonical constructor is marked with {@link DataBoundConstructor}:
+ * its components are the parameters, and their accessors are used to read them back.
+ *
+ * <p>
  * Note that some structures are recursive or mutually recursive.
  * It is up a caller to defend against stack overflows when traversing a model graph,
  * for example by keeping a stack of types which have already been encountered.
@@ -91,6 +106,22 @@ public final class DescribableModel<T> implements Serializable {
     @SuppressFBWarnings("MS_SHOULD_BE_FINAL") // Used to control warnings that instantiate parameters will be ignored
     @Restricted(NoExternalUse.class)
     public static boolean STRICT_PARAMETER_CHECKING = Main.isUnitTest;
+
+    /**
+     * Minimum size of a list of nested objects to instantiate them in parallel; 0, the default, to never do so.
+     * @see ParallelElements
+     */
+    @SuppressFBWarnings("MS_SHOULD_BE_FINAL")
+    @Restricted(NoExternalUse.class)
+    public static int PARALLEL_COERCION_THRESHOLD = SystemProperties.getInteger(DescribableModel.class.getName() + ".PARALLEL_COERCION_THRESHOLD", 0);
+
+    /**
+     * Minimum size of an array or collection of nested objects to uninstantiate them in parallel; 0, the default, to never do so.
+     * @see ParallelElements
+     */
+    @SuppressFBWarnings("MS_SHOULD_BE_FINAL")
+    @Restricted(NoExternalUse.class)
+    public static int PARALLEL_UNCOERCION_THRESHOLD = SystemProperties.getInteger(DescribableModel.class.getName() + ".PARALLEL_UNCOERCION_THRESHOLD", 0);
     /**
      * Type that this model represents.
      */
@@ -103,6 +134,11 @@ public final class DescribableModel<T> implements Serializable {
      */
     private Map<String,DescribableParameter> parametersView;
 
+    /**
+     * Names of {@link #parameters} in alphabetical order, as used by {@link ModelArguments}.
+     */
+    private String[] sortedParameterNames;
+
     /**
      * Data-bound constructor.
      */
@@ -143,13 +179,14 @@ public final class DescribableModel<T> implements Serializable {
             parameters = mod.parameters;
             constructorParamNames = mod.constructorParamNames;
             parametersView = mod.parametersView;
+            sortedParameterNames = mod.sortedParameterNames;
             return;
         }
 
         if (type == ParametersDefinitionProperty.class) { // TODO pending core fix
             constructorParamNames = new String[] {"parameterDefinitions"};
         } else {
-            constructorParamNames = new ClassDescriptor(type).loadConstructorParamNames();
+            constructorParamNames = dataBoundConstructorParamNames(type);
         }
 
         constructor = findConstructor(constructorParamNames.length);
@@ -159,13 +196,93 @@ public final class DescribableModel<T> implements Serializable {
             addParameter(parameters, types[i], constructorParamNames[i], null);
         }
 
-        // rest of the properties will be sorted alphabetically
-        Map<String,DescribableParameter> rest = new TreeMap<String, DescribableParameter>();
+        if (!type.isRecord()) { // components of a record can only be set through its constructor
+            // rest of the properties will be sorted alphabetically
+            for (Map.Entry<String,SetterSpec> e : dataBoundSetters.get(clazz).entrySet()) {
+                addParameter(parameters, e.getValue().type, e.getKey(), e.getValue().setter);
+            }
+        }
+        parametersView = Collections.unmodifiableMap(parameters);
+        sortedParameterNames = parameters.keySet().toArray(new String[0]);
+        Arrays.sort(sortedParameterNames);
+        modelCache.putIfAbsent(clazz.getName(), this);
+    }
+
+    private void addParameter(Map<String,DescribableParameter> props, Type type, String name, Setter setter) {
+        props.put(name, new DescribableParameter(this, type, name, setter));
+    }
+
+    /**
+     * Names of the parameters of the {@link DataBoundConstructor} of a class.
+     * For a {@link Record} whose canonical constructor is the data-bound one, these are the names of its components.
+     * Otherwise they are taken from the constructor itself if the class was compiled with {@code -parameters},
+     * or else {@link ClassDescriptor} has to look for a {@code .stapler} resource or the debug information of the class file.
+     * Either way this is done only once per class, not every time a model is built.
+     * So is finding that there is no such constructor, which is common when {@link #uninstantiate2} tries out
+     * every value which might be data-bound: the {@link NoStaplerConstructorException} is kept in place of the names.
+     */
+    private static final ClassValue<Object> dataBoundConstructorParamNames = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> c) {
+            try {
+                return compute(c);
+            } catch (NoStaplerConstructorException x) {
+                return x;
+            }
+        }
+
+        private String[] compute(Class<?> c) {
+            for (Constructor<?> ctr : c.getConstructors()) {
+                if (ctr.getAnnotation(DataBoundConstructor.class) != null) {
+                    if (c.isRecord()) {
+                        RecordComponent[] components = c.getRecordComponents();
+                        String[] names = new String[components.length];
+                        Class<?>[] types = new Class<?>[components.length];
+                        for (int i = 0; i < components.length; i++) {
+                            names[i] = components[i].getName();
+                            types[i] = components[i].getType();
+                        }
+                        if (Arrays.equals(types, ctr.getParameterTypes())) {
+                            return names;
+                        }
+                    }
+                    Parameter[] params = ctr.getParameters();
+                    String[] names = new String[params.length];
+                    for (int i = 0; i < params.length; i++) {
+                        if (!params[i].isNamePresent()) {
+                            return new ClassDescriptor(c).loadConstructorParamNames();
+                        }
+                        names[i] = params[i].getName();
+                    }
+                    return names;
+                }
+            }
+            // let ClassDescriptor report the missing constructor
+            return new ClassDescriptor(c).loadConstructorParamNames();
+        }
+    };
+
+    private static String[] dataBoundConstructorParamNames(Class<?> c) {
+        Object names = dataBoundConstructorParamNames.get(c);
+        if (names instanceof NoStaplerConstructorException) {
+            // a fresh exception, so that the stack trace is that of the caller
+            throw new NoStaplerConstructorException(((NoStaplerConstructorException) names).getMessage());
+        }
+        return (String[]) names;
+    }
 
-        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+    /**
+     * {@link DataBoundSetter}s of a class, including inherited ones, sorted by property name.
+     * Computed once per class, so a model for a subclass only scans the members the subclass declares itself
+     * and reuses the result already computed for its superclass.
+     */
+    private static final ClassValue<Map<String,SetterSpec>> dataBoundSetters = new ClassValue<Map<String,SetterSpec>>() {
+        @Override
+        protected Map<String,SetterSpec> computeValue(Class<?> c) {
+            Map<String,SetterSpec> r = new TreeMap<String,SetterSpec>();
             for (Field f : c.getDeclaredFields()) {
                 if (f.isAnnotationPresent(DataBoundSetter.class)) {
-                    addParameter(rest, f.getGenericType(), f.getName(), Setter.create(f));
+                    r.put(f.getName(), new SetterSpec(f.getGenericType(), Setter.create(f)));
                 }
             }
             for (Method m : c.getDeclaredMethods()) {
@@ -174,18 +291,29 @@ public final class DescribableModel<T> implements Serializable {
                     if (!m.getName().startsWith("set") || parameterTypes.length != 1) {
                         throw new IllegalStateException(m + " cannot be a @DataBoundSetter");
                     }
-                    addParameter(rest, m.getGenericParameterTypes()[0],
-                            Introspector.decapitalize(m.getName().substring(3)), Setter.create(m));
+                    r.put(Introspector.decapitalize(m.getName().substring(3)), new SetterSpec(parameterTypes[0], Setter.create(m)));
                 }
             }
+            Class<?> sup = c.getSuperclass();
+            if (sup != null) {
+                // a setter declared further up the hierarchy has always won over one of the same name further down
+                r.putAll(get(sup));
+            }
+            return Collections.unmodifiableMap(r);
         }
-        parameters.putAll(rest);
-        parametersView = Collections.unmodifiableMap(parameters);
-        modelCache.putIfAbsent(clazz.getName(), this);
-    }
+    };
 
-    private void addParameter(Map<String,DescribableParameter> props, Type type, String name, Setter setter) {
-        props.put(name, new DescribableParameter(this, type, name, setter));
+    /**
+     * A {@link DataBoundSetter} found on a class, before it is bound to a particular model.
+     */
+    private static final class SetterSpec {
+        final Type type;
+        final Setter setter;
+
+        SetterSpec(Type type, Setter setter) {
+            this.type = type;
+            this.setter = setter;
+        }
     }
 
     /**
@@ -212,6 +340,10 @@ public final class DescribableModel<T> implements Serializable {
         return parameters.get(name);
     }
 
+    /*package*/ String[] getSortedParameterNames() {
+        return sortedParameterNames;
+    }
+
     /**
      * Returns true if this model has one and only one required parameter.
      *
@@ -277,7 +409,8 @@ public final class DescribableModel<T> implements Serializable {
      * The arguments may be primitives (as wrappers) or {@link String}s if that is their declared type.
      * {@link Character}s, {@link Enum}s, and {@link URL}s may be represented by {@link String}s.
      * Other object types may be passed in “raw” as well, but JSON-like structures are encouraged instead.
-     * Specifically a {@link List} may be used to represent any list- or array-valued argument.
+     * Specifically a {@link List} may be used to represent any list- or array-valued argument;
+     * so may any other {@link Iterable}, an array, or a {@link Stream}.
      * A {@link Map} with {@link String} keys may be used to represent any class which is itself data-bound.
      * In that case the special key {@link #CLAZZ} is used to specify the {@link Class#getName};
      * or it may be omitted if the argument is declared to take a concrete type;
@@ -315,27 +448,420 @@ public final class DescribableModel<T> implements Serializable {
 
         Set<String> erroneous =  new TreeSet<>(arguments.keySet());
         erroneous.removeAll(parameters.keySet());
+        reportUnknownParameters(erroneous, listener);
+
+        try {
+            Object[] args = buildArguments(arguments, constructor.getGenericParameterTypes(), constructorParamNames, true, listener);
+            T o = constructor.newInstance(args);
+            injectSetters(o, arguments, listener);
+            return o;
+        } catch (Exception x) {
+            throw instantiationFailure(arguments, null, x);
+        }
+    }
+
+    private void reportUnknownParameters(Set<String> erroneous, TaskListener listener) {
         if (erroneous.size() > 0) {
             String msg = "WARNING: Unknown parameter(s) found for class type '" + this.type.getName() + "': " + String.join(",", erroneous);
             if (STRICT_PARAMETER_CHECKING) {
                 throw new IllegalArgumentException(msg);
+            } else if (listener instanceof LogTaskListener) {
+                // going to the system log rather than to that of some build, where it would be expected every time
+                long suppressed = UNKNOWN_PARAMETER_WARNINGS.occurred(msg);
+                if (suppressed >= 0) {
+                    listener.getLogger().println(msg + RepeatedWarnings.suffix(suppressed));
+                }
             } else {
                 listener.getLogger().println(msg);
             }
         }
+    }
+
+    /**
+     * @param parameter
+     *      the name of the parameter which failed, if known
+     */
+    private IllegalArgumentException instantiationFailure(Map<String,?> arguments, @CheckForNull String parameter, Exception x) {
+        if (x instanceof InstantiationFailure && ((InstantiationFailure) x).isFor(type, arguments)) {
+            // already reported from buildArguments or injectSetters
+            return (InstantiationFailure) x;
+        }
+        InstantiationFailure f = new InstantiationFailure(type, arguments, parameter, x);
+        if (LOGGER.isLoggable(Level.FINE) && f.involvesSecrets()) {
+            LOGGER.log(Level.FINE, "Could not instantiate " + arguments + " for " + this.type.getName() + ": " + x);
+        }
+        return f;
+    }
+
+    /**
+     * Checks whether {@link #instantiate(Map, TaskListener)} would be able to bind the given arguments,
+     * without instantiating anything, so no constructors or setters are run.
+     * All problems are collected in one pass over the arguments, following the {@link ParameterType} of each parameter:
+     * unknown parameters (whether or not they would be fatal),
+     * values which cannot be coerced to the parameter type, such as unparseable numbers or unknown enum constants,
+     * and nested objects whose {@link #CLAZZ} or symbol cannot be resolved.
+     * Failures which only the constructor or setters themselves could detect are of course not found.
+     *
+     * <p>
+     * Any {@link java.util.stream.Stream} among the arguments is consumed.
+     *
+     * @param arguments
+     *      The arguments as they would be passed to {@link #instantiate(Map, TaskListener)}
+     * @return
+     *      Human-readable descriptions of the problems, each prefixed with the path to the offending argument;
+     *      empty if there are none
+     */
+    public List<String> validate(Map<String,?> arguments) {
+        List<String> problems = new ArrayList<>();
+        validate("", arguments, problems);
+        return problems;
+    }
 
+    private void validate(String path, Map<String,?> arguments, List<String> problems) {
+        String at = path.isEmpty() ? "" : path + ": ";
+        CustomDescribableModel cdm = CustomDescribableModel.of(type);
+        if (cdm != null) {
+            try {
+                arguments = cdm.customInstantiate(deeplyImmutable(arguments));
+            } catch (RuntimeException x) {
+                problems.add(at + x);
+                return;
+            }
+        }
+        if (arguments.containsKey(ANONYMOUS_KEY)) {
+            DescribableParameter rp = getSoleRequiredParameter();
+            if (arguments.size()!=1) {
+                problems.add(at + "All arguments have to be named but it has "+ANONYMOUS_KEY);
+                return;
+            } else if (rp==null) {
+                problems.add(at + "Arguments to "+type+" have to be explicitly named");
+                return;
+            }
+            arguments = Collections.singletonMap(rp.getName(),arguments.get(ANONYMOUS_KEY));
+        }
+        for (Map.Entry<String,?> e : arguments.entrySet()) {
+            String name = e.getKey();
+            String argPath = path.isEmpty() ? name : path + "." + name;
+            DescribableParameter p = parameters.get(name);
+            if (p == null) {
+                problems.add(argPath + ": unknown parameter for class type '" + type.getName() + "'");
+            } else if (e.getValue() != null || !p.isRequired()) {
+                // a null constructor argument gets a default value, checked below
+                validate(argPath, p.getRawType(), p.getType(), e.getValue(), problems);
+            }
+        }
+        Type[] types = constructor.getGenericParameterTypes();
+        for (int i = 0; i < constructorParamNames.length; i++) {
+            if (types[i] instanceof Class && ((Class) types[i]).isPrimitive() && arguments.get(constructorParamNames[i]) == null
+                    && getVmDefaultValueForPrimitiveType((Class) types[i]) == null) {
+                problems.add((path.isEmpty() ? "" : path + ".") + constructorParamNames[i] + ": an explicit value is required");
+            }
+        }
+    }
+
+    /**
+     * Checks whether {@link #coerce(String, Type, Object, TaskListener)} would be able to convert a value.
+     */
+    private static void validate(String path, Type type, ParameterType parameterType, Object o, List<String> problems) {
+        Class<?> erased = Types.erasure(type);
         try {
-            Object[] args = buildArguments(arguments, constructor.getGenericParameterTypes(), constructorParamNames, true, listener);
+            if (type instanceof Class) {
+                o = ReflectionCache.getCachedClass(erased).coerceArgument(o);
+            }
+            if (o instanceof GString) {
+                o = o.toString();
+            }
+            if (isCollectionLike(o) && Collection.class.isAssignableFrom(erased)) {
+                validateItems(path, Types.getTypeArgument(Types.getBaseClass(type, Collection.class), 0, Object.class), parameterType, o, problems);
+            } else if (o == null && erased.isPrimitive()) {
+                // as for an item of a primitive array, or a primitive setter
+                problems.add(path + ": expects " + type + " but received null");
+            } else if (o == null || Primitives.wrap(erased).isInstance(o)) {
+                // fine as is
+            } else if (o instanceof UninstantiatedDescribable) {
+                UninstantiatedDescribable ud = (UninstantiatedDescribable) o;
+                validateNested(path, erased, parameterType, ud.getKlass(), ud.getSymbol(), ud.getArguments(), problems);
+            } else if (o instanceof Map) {
+                Map<String,Object> m = new LinkedHashMap<>();
+                for (Map.Entry<?,?> entry : ((Map<?,?>) o).entrySet()) {
+                    m.put((String) entry.getKey(), entry.getValue());
+                }
+                validateNested(path, erased, parameterType, (String) m.remove(CLAZZ), null, m, problems);
+            } else if (o instanceof String && erased.isEnum()) {
+                if (parameterType instanceof EnumType && !Arrays.asList(((EnumType) parameterType).getValues()).contains(o)) {
+                    problems.add(path + ": expects one of " + Arrays.toString(((EnumType) parameterType).getValues()) + " but received " + o);
+                }
+            } else if (o instanceof String && erased == URL.class) {
+                new URL((String) o);
+            } else if (o instanceof String && erased == Result.class) {
+                // anything goes
+            } else if (o instanceof String && (erased == char.class || erased == Character.class) && ((String) o).length() == 1) {
+                // fine
+            } else if (o instanceof String && Number.class.isAssignableFrom(Primitives.wrap(erased))) {
+                coerceStringToNumber(path, Primitives.wrap(erased), (String) o);
+            } else if (o instanceof String && (erased == boolean.class || erased == Boolean.class)) {
+                // fine
+            } else if (isCollectionLike(o) && erased.isArray()) {
+                validateItems(path, erased.getComponentType(), parameterType, o, problems);
+            } else {
+                problems.add(path + ": expects " + type + " but received " + o.getClass());
+            }
+        } catch (Exception x) {
+            problems.add(path + ": " + x);
+        }
+    }
+
+    private static void validateItems(String path, Type itemType, ParameterType parameterType, Object items, List<String> problems) {
+        ParameterType itemParameterType = parameterType instanceof ArrayType ? ((ArrayType) parameterType).getElementType() : ParameterType.of(itemType);
+        int i = 0;
+        for (Iterator<?> it = iteratorOf(items); it.hasNext(); i++) {
+            validate(path + "[" + i + "]", itemType, itemParameterType, it.next(), problems);
+        }
+    }
+
+    private static void validateNested(String path, Class<?> base, ParameterType parameterType, @CheckForNull String klass, @CheckForNull String symbol,
+                                       Map<String,?> arguments, List<String> problems) throws Exception {
+        Class<?> clazz = resolveClass(base, klass, symbol);
+        if (!base.isAssignableFrom(clazz)) {
+            problems.add(path + ": " + clazz.getName() + " is not a " + base.getName());
+            return;
+        }
+        DescribableModel<?> model = parameterType instanceof HomogeneousObjectType && ((HomogeneousObjectType) parameterType).getType() == clazz
+                ? ((HomogeneousObjectType) parameterType).getSchemaType()
+                : of(clazz);
+        model.validate(path, arguments, problems);
+    }
+
+    /**
+     * Creates an instance of a class like {@link #instantiate(Map, TaskListener)} does,
+     * but reading the arguments from a streaming source rather than from a map.
+     * Values are coerced and bound to constructor and setter parameters as they are read,
+     * so a large document need not be held in memory as nested maps and lists in addition to the objects built from it.
+     *
+     * <p>
+     * The same coercions apply.
+     * A nested object of an abstract type needs a {@link #CLAZZ} argument;
+     * if that is the first argument of the object, the rest of it is bound directly as well,
+     * otherwise the object is read into a map first.
+     * A nested object of a concrete type is bound directly, unless a later {@link #CLAZZ} argument names a subtype,
+     * in which case the rest of it is read into a map.
+     * As with {@link #instantiate(Map, TaskListener)}, a {@link #CLAZZ} argument of the top-level object is an unknown parameter.
+     * Likewise for objects with a {@link CustomDescribableModel}, which needs to see all arguments at once.
+     *
+     * @param reader
+     *      positioned at the start of the object to read; left after its end
+     * @param listener
+     *      Listener to record any instantiation warnings
+     * @return
+     *      The instantiated object
+     * @throws IOException
+     *      if the reader fails
+     */
+    public T instantiate(ArgumentReader reader, @CheckForNull TaskListener listener) throws IllegalArgumentException, IOException {
+        if (listener == null) {
+            listener = new LogTaskListener(LOGGER, Level.WARNING);
+        }
+        reader.beginObject();
+        return read(reader, null, false, listener);
+    }
+
+    /**
+     * Reads the rest of an object whose start has already been consumed.
+     *
+     * @param name
+     *      the name of the first argument, if already consumed
+     * @param nested
+     *      true if this is the value of a parameter, so that a {@link #CLAZZ} argument may still name a subtype,
+     *      false if it is the object passed to {@link #instantiate(ArgumentReader, TaskListener)}, where {@link #CLAZZ} is unknown like any other name
+     */
+    private T read(ArgumentReader reader, @CheckForNull String name, boolean nested, TaskListener listener) throws IOException {
+        if (CustomDescribableModel.of(type) != null) {
+            return instantiate(readMap(reader, name), listener);
+        }
+        Map<String,Object> values = new LinkedHashMap<>();
+        Set<String> erroneous = new TreeSet<>();
+        // of a nested object, kept in case a subtype named later has such parameters
+        Map<String,Object> unknown = new LinkedHashMap<>();
+        Class<?> subtype = null;
+        boolean anonymous = false;
+        try {
+            if (name == null && reader.peek() == ArgumentReader.Token.NAME) {
+                name = reader.nextName();
+            }
+            while (name != null) {
+                if (name.equals(ANONYMOUS_KEY)) {
+                    DescribableParameter rp = getSoleRequiredParameter();
+                    if (rp==null)
+                        throw new IllegalArgumentException("Arguments to "+type+" have to be explicitly named");
+                    name = rp.getName();
+                    anonymous = true;
+                }
+                DescribableParameter p = parameters.get(name);
+                if (p != null) {
+                    String context = p.setter != null ? p.setter.getDisplayName() : this.type.getName() + "." + name;
+                    values.put(name, read(context, p.getRawType(), reader, listener));
+                } else if (nested && name.equals(CLAZZ)) {
+                    String klass = (String) reader.nextValue();
+                    Class<?> clazz = resolveClass(type, klass, null);
+                    if (clazz != type) {
+                        if (!type.isAssignableFrom(clazz)) {
+                            throw new ClassCastException(clazz.getName() + " is not a " + type.getName());
+                        }
+                        // named too late to bind directly, so read the rest into a map, as for an abstract type
+                        subtype = clazz;
+                        unknown.putAll(readMap(reader, null));
+                        break;
+                    }
+                } else {
+                    erroneous.add(name);
+                    if (nested) {
+                        unknown.put(name, readAny(reader));
+                    } else {
+                        skip(reader);
+                    }
+                }
+                name = reader.peek() == ArgumentReader.Token.NAME ? reader.nextName() : null;
+            }
+            if (subtype == null) {
+                reader.endObject();
+            }
+        } catch (IOException x) {
+            throw x;
+        } catch (Exception x) {
+            throw instantiationFailure(values, name, x);
+        }
+        if (subtype != null) {
+            // arguments read so far are passed on as already bound, which coerce accepts as is
+            Map<String,Object> arguments = new LinkedHashMap<>(values);
+            arguments.putAll(unknown);
+            return type.cast(of(subtype).instantiate(arguments, listener));
+        }
+        if (anonymous && values.size() + erroneous.size() != 1) {
+            throw new IllegalArgumentException("All arguments have to be named but it has "+ANONYMOUS_KEY);
+        }
+        reportUnknownParameters(erroneous, listener);
+
+        try {
+            Type[] types = constructor.getGenericParameterTypes();
+            Object[] args = new Object[constructorParamNames.length];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = values.get(constructorParamNames[i]);
+                if (args[i] == null && types[i] instanceof Class && ((Class) types[i]).isPrimitive()) {
+                    args[i] = getVmDefaultValueForPrimitiveType((Class) types[i]);
+                    if (args[i] == null)
+                        throw new UnsupportedOperationException("not yet handling @DataBoundConstructor default value of " + types[i] + "; pass an explicit value for " + constructorParamNames[i]);
+                }
+            }
             T o = constructor.newInstance(args);
-            injectSetters(o, arguments, listener);
+            for (DescribableParameter p : parameters.values()) {
+                if (p.setter != null && values.containsKey(p.getName())) {
+                    p.setter.set(o, values.get(p.getName()));
+                }
+            }
             return o;
         } catch (Exception x) {
-            if (arguments.values().stream().anyMatch(o -> o instanceof Secret)) {
-                LOGGER.log(Level.FINE, "Could not instantiate " + arguments + " for " + this.type.getName() + ": " + x);
-                throw new IllegalArgumentException("Could not instantiate arguments for " + this.type.getName()
-                        + ". Secrets are involved, so details are available on more verbose logging levels.");
+            throw instantiationFailure(values, null, x);
+        }
+    }
+
+    /**
+     * Reads a value and coerces it to the given type, as {@link #coerce(String, Type, Object, TaskListener)} would.
+     */
+    private Object read(String context, Type type, ArgumentReader reader, TaskListener listener) throws Exception {
+        Class<?> erased = Types.erasure(type);
+        switch (reader.peek()) {
+        case BEGIN_ARRAY:
+            Type itemType = erased.isArray() ? erased.getComponentType()
+                    : Collection.class.isAssignableFrom(erased) ? Types.getTypeArgument(Types.getBaseClass(type, Collection.class), 0, Object.class)
+                    : Object.class;
+            List<Object> items = new ArrayList<>();
+            reader.beginArray();
+            while (reader.peek() != ArgumentReader.Token.END_ARRAY) {
+                items.add(read(context, itemType, reader, listener));
+            }
+            reader.endArray();
+            return coerce(context, type, items, listener);
+        case BEGIN_OBJECT:
+            reader.beginObject();
+            if (erased.isAssignableFrom(LinkedHashMap.class)) {
+                // would be passed as is
+                return readMap(reader, null);
             }
-            throw new IllegalArgumentException("Could not instantiate " + arguments + " for " + this.type.getName() + ": " + x, x);
+            String name = reader.peek() == ArgumentReader.Token.NAME ? reader.nextName() : null;
+            String klass = null;
+            if (CLAZZ.equals(name)) {
+                klass = (String) reader.nextValue();
+                name = reader.peek() == ArgumentReader.Token.NAME ? reader.nextName() : null;
+            } else if (Modifier.isAbstract(erased.getModifiers())) {
+                // the class may yet be named by a later argument
+                return coerce(context, type, readMap(reader, name), listener);
+            }
+            return read_(resolveClass(erased, klass, null), reader, name, listener);
+        default:
+            return coerce(context, type, reader.nextValue(), listener);
+        }
+    }
+
+    private static <T> T read_(Class<T> clazz, ArgumentReader reader, @CheckForNull String name, TaskListener listener) throws IOException {
+        return of(clazz).read(reader, name, true, listener);
+    }
+
+    /**
+     * Reads the rest of an object whose start has already been consumed as a plain map.
+     *
+     * @param name
+     *      the name of the first argument, if already consumed
+     */
+    private static Map<String,Object> readMap(ArgumentReader reader, @CheckForNull String name) throws IOException {
+        Map<String,Object> m = new LinkedHashMap<>();
+        if (name == null && reader.peek() == ArgumentReader.Token.NAME) {
+            name = reader.nextName();
+        }
+        while (name != null) {
+            m.put(name, readAny(reader));
+            name = reader.peek() == ArgumentReader.Token.NAME ? reader.nextName() : null;
+        }
+        reader.endObject();
+        return m;
+    }
+
+    private static Object readAny(ArgumentReader reader) throws IOException {
+        switch (reader.peek()) {
+        case BEGIN_OBJECT:
+            reader.beginObject();
+            return readMap(reader, null);
+        case BEGIN_ARRAY:
+            List<Object> items = new ArrayList<>();
+            reader.beginArray();
+            while (reader.peek() != ArgumentReader.Token.END_ARRAY) {
+                items.add(readAny(reader));
+            }
+            reader.endArray();
+            return items;
+        default:
+            return reader.nextValue();
+        }
+    }
+
+    private static void skip(ArgumentReader reader) throws IOException {
+        switch (reader.peek()) {
+        case BEGIN_OBJECT:
+            reader.beginObject();
+            while (reader.peek() == ArgumentReader.Token.NAME) {
+                reader.nextName();
+                skip(reader);
+            }
+            reader.endObject();
+            break;
+        case BEGIN_ARRAY:
+            reader.beginArray();
+            while (reader.peek() != ArgumentReader.Token.END_ARRAY) {
+                skip(reader);
+            }
+            reader.endArray();
+            break;
+        default:
+            reader.nextValue();
         }
     }
 
@@ -409,7 +935,11 @@ public final class DescribableModel<T> implements Serializable {
             Object a = bag.get(name);
             Type type = types[i];
             if (a != null) {
-                args[i] = coerce(this.type.getName() + "." + name, type, a, listener);
+                try {
+                    args[i] = coerce(this.type.getName() + "." + name, type, a, listener);
+                } catch (Exception x) {
+                    throw instantiationFailure(bag, name, x);
+                }
             } else if (type instanceof Class && ((Class) type).isPrimitive()) {
                 args[i] = getVmDefaultValueForPrimitiveType((Class)type);
                 if (args[i]==null && callEvenIfNoArgs)
@@ -429,7 +959,13 @@ public final class DescribableModel<T> implements Serializable {
             if (p.setter!=null) {
                 if (arguments.containsKey(p.getName())) {
                     Object v = arguments.get(p.getName());
-                    p.setter.set(o, coerce(p.setter.getDisplayName(), p.getRawType(), v, listener));
+                    Object coerced;
+                    try {
+                        coerced = coerce(p.setter.getDisplayName(), p.getRawType(), v, listener);
+                    } catch (Exception x) {
+                        throw instantiationFailure(arguments, p.getName(), x);
+                    }
+                    p.setter.set(o, coerced);
                 }
             }
         }
@@ -457,10 +993,10 @@ public final class DescribableModel<T> implements Serializable {
         if (o instanceof GString) {
             o = o.toString();
         }
-        if (o instanceof List && Collection.class.isAssignableFrom(erased)) {
-            return coerceList(context,
+        if (isCollectionLike(o) && Collection.class.isAssignableFrom(erased)) {
+            return coerceCollection(context, erased,
                     Types.getTypeArgument(Types.getBaseClass(type, Collection.class),
-                            0, Object.class), (List) o, listener);
+                            0, Object.class), o, listener);
         } else if (Primitives.wrap(erased).isInstance(o)) {
             return o;
         } else if (o==null) {
@@ -487,16 +1023,14 @@ public final class DescribableModel<T> implements Serializable {
             return coerceStringToNumber(context, Primitives.wrap(erased), (String)o);
         } else if (o instanceof String && (erased == boolean.class || erased == Boolean.class)) {
             return Boolean.valueOf((String)o);
-        } else if (o instanceof List && erased.isArray()) {
-            Class<?> componentType = erased.getComponentType();
-            List<Object> list = coerceList(context, componentType, (List) o, listener);
-            return list.toArray((Object[]) Array.newInstance(componentType, list.size()));
+        } else if (isCollectionLike(o) && erased.isArray()) {
+            return coerceArray(context, erased.getComponentType(), o, listener);
         } else {
             throw new ClassCastException(context + " expects " + type + " but received " + o.getClass());
         }
     }
 
-    private Object coerceStringToNumber(@NonNull String context, @NonNull Class numberClass, @NonNull String o)
+    private static Object coerceStringToNumber(@NonNull String context, @NonNull Class numberClass, @NonNull String o)
             throws ClassCastException {
         try {
             if (numberClass.equals(Integer.class)) {
@@ -580,14 +1114,189 @@ public final class DescribableModel<T> implements Serializable {
     }
 
     /**
-     * Apply {@link #coerce(String, Type, Object, TaskListener)} method to a collection item.
+     * Apply {@link #coerce(String, Type, Object, TaskListener)} method to a collection item,
+     * collecting the results in a new collection suitable for the given collection type.
+     * A collection which already is of that type is passed as is if none of its items needed coercing,
+     * so that it keeps its class and, for example, the comparator of a {@link SortedSet}.
+     *
+     * @param items
+     *      Anything {@link #isCollectionLike(Object)}.
      */
-    private List<Object> coerceList(String context, Type type, List<?> list, TaskListener listener) throws Exception {
-        List<Object> r = new ArrayList<Object>();
-        for (Object elt : list) {
-            r.add(coerce(context, type, elt, listener));
+    private Collection<?> coerceCollection(String context, Class<?> collectionType, Type type, Object items, TaskListener listener) throws Exception {
+        Collection<?> fitting = items instanceof Collection && collectionType.isInstance(items) ? (Collection<?>) items : null;
+        List<?> nested = nestedObjects(items);
+        if (nested != null) {
+            Object[] values = ParallelElements.apply(nested, (i, item) -> coerceElement(context, type, i, item, listener));
+            if (fitting != null && sameItems(values, nested)) {
+                return fitting;
+            }
+            Collection<Object> r = newCollection(collectionType, items instanceof Set, values.length);
+            Collections.addAll(r, values);
+            return r;
         }
-        return r;
+        // only allocated once some item has been coerced into something else, or from the start if the collection does not fit
+        Collection<Object> r = fitting != null ? null : newCollection(collectionType, items instanceof Set, sizeOf(items));
+        int i = 0;
+        for (Iterator<?> it = iteratorOf(items); it.hasNext(); i++) {
+            Object item = it.next();
+            Object v = coerceElement(context, type, i, item, listener);
+            if (r == null) {
+                if (v == item) {
+                    continue;
+                }
+                r = newCollection(collectionType, items instanceof Set, fitting.size());
+                Iterator<?> before = fitting.iterator();
+                for (int j = 0; j < i; j++) {
+                    r.add(before.next());
+                }
+            }
+            r.add(v);
+        }
+        return r != null ? r : fitting;
+    }
+
+    private static boolean sameItems(Object[] values, List<?> items) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != items.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply {@link #coerce(String, Type, Object, TaskListener)} method to a collection item,
+     * storing the results directly into an array of the given component type, which may be primitive.
+     *
+     * @param items
+     *      Anything {@link #isCollectionLike(Object)}.
+     */
+    private Object coerceArray(String context, Class<?> componentType, Object items, TaskListener listener) throws Exception {
+        int size = sizeOf(items);
+        if (size < 0) {
+            // have to count the items before the array can be allocated
+            List<Object> list = new ArrayList<Object>();
+            for (Iterator<?> it = iteratorOf(items); it.hasNext(); ) {
+                list.add(it.next());
+            }
+            items = list;
+            size = list.size();
+        }
+        Object array = Array.newInstance(componentType, size);
+        List<?> nested = componentType.isPrimitive() ? null : nestedObjects(items);
+        if (nested != null) {
+            Object[] values = ParallelElements.apply(nested, (i, item) -> coerceElement(context, componentType, i, item, listener));
+            System.arraycopy(values, 0, array, 0, size);
+            return array;
+        }
+        int i = 0;
+        for (Iterator<?> it = iteratorOf(items); it.hasNext(); i++) {
+            Object v = coerceElement(context, componentType, i, it.next(), listener);
+            if (v == null && componentType.isPrimitive()) {
+                throw new InstantiationFailure(i, new ClassCastException(context + " expects " + componentType + " but received null"));
+            }
+            Array.set(array, i, v);
+        }
+        return array;
+    }
+
+    private Object coerceElement(String context, Type type, int index, Object item, TaskListener listener) throws InstantiationFailure {
+        try {
+            return coerce(context, type, item, listener);
+        } catch (Exception x) {
+            throw new InstantiationFailure(index, x);
+        }
+    }
+
+    /**
+     * Checks whether the items of a collection-like value should be coerced with {@link ParallelElements}:
+     * whether there are at least {@link #PARALLEL_COERCION_THRESHOLD} of them
+     * and they are nested objects to instantiate, which is where the time goes, rather than simple values.
+     *
+     * @return the items as a list if so, else null
+     */
+    private static @CheckForNull List<?> nestedObjects(Object items) {
+        List<?> list = items instanceof List ? (List<?>) items : items instanceof Object[] ? Arrays.asList((Object[]) items) : null;
+        if (list == null || !ParallelElements.worthwhile(list.size(), PARALLEL_COERCION_THRESHOLD)) {
+            return null;
+        }
+        Object first = list.get(0);
+        return first instanceof Map || first instanceof UninstantiatedDescribable ? list : null;
+    }
+
+    /**
+     * True if the value may be used for a list- or array-valued parameter:
+     * any {@link Iterable}, array (including arrays of primitives), or {@link Stream}.
+     */
+    /*package*/ static boolean isCollectionLike(Object o) {
+        return o instanceof Iterable || o instanceof Stream || (o != null && o.getClass().isArray());
+    }
+
+    /**
+     * Number of items in a value that {@link #isCollectionLike(Object)}, or -1 if that is not known without consuming it.
+     */
+    /*package*/ static int sizeOf(Object items) {
+        if (items instanceof Collection) {
+            return ((Collection<?>) items).size();
+        }
+        if (items.getClass().isArray()) {
+            return Array.getLength(items);
+        }
+        return -1;
+    }
+
+    /**
+     * Iterates a value that {@link #isCollectionLike(Object)}.
+     */
+    /*package*/ static Iterator<?> iteratorOf(Object items) {
+        if (items instanceof Iterable) {
+            return ((Iterable<?>) items).iterator();
+        }
+        if (items instanceof Stream) {
+            return ((Stream<?>) items).iterator();
+        }
+        if (items instanceof Object[]) {
+            return Arrays.asList((Object[]) items).iterator();
+        }
+        final Object array = items;
+        final int length = Array.getLength(array);
+        return new Iterator<Object>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < length;
+            }
+
+            @Override
+            public Object next() {
+                if (i >= length) {
+                    throw new NoSuchElementException();
+                }
+                return Array.get(array, i++);
+            }
+        };
+    }
+
+    /**
+     * Creates an empty collection that can be passed where the given collection type is expected.
+     *
+     * @param preferSet
+     *      true to keep set semantics when the parameter type allows either a list or a set
+     * @param size
+     *      expected number of items, or -1 if unknown
+     */
+    private static Collection<Object> newCollection(Class<?> collectionType, boolean preferSet, int size) {
+        boolean list = collectionType.isAssignableFrom(ArrayList.class);
+        boolean set = collectionType.isAssignableFrom(LinkedHashSet.class);
+        if (set && (preferSet || !list)) {
+            return size < 0 ? new LinkedHashSet<Object>() : new LinkedHashSet<Object>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        if (!list && collectionType.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<Object>();
+        }
+        // also the fallback for collection types we cannot create, which will then be rejected when passed
+        return size < 0 ? new ArrayList<Object>() : new ArrayList<Object>(size);
     }
 
     /** Tries to find the {@link ParameterValue} type corresponding to a {@link ParameterDefinition} by assuming conventional naming. */
@@ -625,6 +1334,148 @@ public final class DescribableModel<T> implements Serializable {
         return clazzes;
     }
 
+    /**
+     * Checks whether two data-bound objects have the same configuration,
+     * that is, whether {@link #uninstantiate2(Object)} would produce equal results for them,
+     * without uninstantiating either.
+     * Properties are compared through their getters, recursing into nested data-bound objects, lists and arrays,
+     * and the comparison stops at the first difference.
+     * A property left at its default value on one object and explicitly set to that value on the other counts as the same.
+     * Objects with a {@link CustomDescribableModel} are compared by uninstantiating them.
+     *
+     * @throws UnsupportedOperationException if the class does not follow the expected structure
+     */
+    public boolean structurallyEquals(T a, T b) throws UnsupportedOperationException {
+        if (a==null || b==null)
+            throw new IllegalArgumentException("Expected "+type+" but got null");
+        if (!type.isInstance(a))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+a.getClass());
+        if (!type.isInstance(b))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+b.getClass());
+        if (a == b) {
+            return true;
+        }
+        if (a.getClass() != b.getClass()) {
+            return false;
+        }
+        return sameProperties(a, b);
+    }
+
+    /**
+     * Makes a deep copy of a data-bound object.
+     * Each property is read through its getter and passed straight to the constructor or setter of the copy,
+     * without going through {@link #uninstantiate2(Object)} and {@link #instantiate(Map, TaskListener)},
+     * so there are no intermediate maps or control instances,
+     * and values are only coerced when the getter returns something the parameter does not take, such as a list for an array.
+     * Setters are called only for properties whose value on the new object differs from the original,
+     * as the arguments of {@link #uninstantiate2(Object)} would only include those.
+     *
+     * <p>
+     * Nested data-bound objects are copied likewise, as are arrays and collections.
+     * Other values, such as strings, enums or {@link Secret}s, are shared with the original.
+     * Objects with a {@link CustomDescribableModel} are copied by uninstantiating and instantiating them.
+     *
+     * @param o a data-bound object
+     * @return a new object equivalent to {@code o}
+     * @throws UnsupportedOperationException if the class does not follow the expected structure
+     * @throws IllegalArgumentException if the copy could not be constructed
+     */
+    public T copy(T o) throws UnsupportedOperationException, IllegalArgumentException {
+        if (o==null)
+            throw new IllegalArgumentException("Expected "+type+" but got null");
+        if (!type.isInstance(o))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+o.getClass());
+        if (CustomDescribableModel.of(type) != null) {
+            return instantiate(uninstantiate2(o).getArguments(), null);
+        }
+        Type[] types = constructor.getGenericParameterTypes();
+        Object[] args = new Object[constructorParamNames.length];
+        for (int i = 0; i < args.length; i++) {
+            String context = this.type.getName() + "." + constructorParamNames[i];
+            try {
+                args[i] = fit(context, types[i], copyValue(parameters.get(constructorParamNames[i]).getValue(o), types[i]));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Could not copy " + constructorParamNames[i] + " of " + type.getName() + ": " + x, x);
+            }
+        }
+        T copy;
+        try {
+            copy = constructor.newInstance(args);
+        } catch (Exception x) {
+            throw new IllegalArgumentException("Could not copy an instance of " + type.getName() + ": " + x, x);
+        }
+        for (DescribableParameter p : parameters.values()) {
+            if (p.isRequired()) {
+                continue;
+            }
+            Object v = p.getValue(o);
+            if (sameValue(p.getValue(copy), v, p.getRawType())) {
+                continue;
+            }
+            try {
+                p.setter.set(copy, fit(p.setter.getDisplayName(), p.getRawType(), copyValue(v, p.getRawType())));
+            } catch (Exception x) {
+                throw new IllegalArgumentException("Could not copy " + p.getName() + " of " + type.getName() + ": " + x, x);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Copies a property value for {@link #copy}.
+     */
+    private static Object copyValue(@CheckForNull Object v, Type type) {
+        if (v == null) {
+            return null;
+        } else if (v.getClass().isArray()) {
+            Class<?> componentType = v.getClass().getComponentType();
+            int length = Array.getLength(v);
+            Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, componentType.isPrimitive() ? Array.get(v, i) : copyValue(Array.get(v, i), componentType));
+            }
+            return array;
+        } else if (v instanceof Collection) {
+            Collection<?> items = (Collection<?>) v;
+            Class<?> collectionType = Types.isSubClassOf(type, Collection.class) ? Types.erasure(type) : Collection.class;
+            Type itemType = Types.isSubClassOf(type, Collection.class)
+                    ? Types.getTypeArgument(Types.getBaseClass(type, Collection.class), 0, Object.class)
+                    : Object.class;
+            Collection<Object> copy = newCollection(collectionType, v instanceof Set, items.size());
+            for (Object item : items) {
+                copy.add(copyValue(item, itemType));
+            }
+            return copy;
+        } else if (v instanceof Enum || v.getClass().getName().startsWith("java.")) {
+            return v;
+        }
+        try {
+            return copy_(v.getClass(), v);
+        } catch (UnsupportedOperationException x) {
+            // then share it, as uncoerce would leave it raw
+            if (!(x.getCause() instanceof NoStaplerConstructorException)) {
+                LOGGER.log(Level.WARNING, "failed to copy " + v, x);
+            }
+        } catch (NoStaplerConstructorException x) {
+            // share it
+        }
+        return v;
+    }
+
+    /**
+     * Passes a value copied for {@link #copy} through {@link #coerce} if the parameter it is for does not take it as is.
+     */
+    private Object fit(String context, Type type, @CheckForNull Object v) throws Exception {
+        if (v == null || Primitives.wrap(Types.erasure(type)).isInstance(v)) {
+            return v;
+        }
+        return coerce(context, type, v, null);
+    }
+
+    private static <T> T copy_(Class<T> clazz, Object o) {
+        return of(clazz).copy(clazz.cast(o));
+    }
+
     /**
      * Computes arguments suitable to pass to {@link #instantiate} to reconstruct this object.
      * @param o a data-bound object
@@ -635,7 +1486,7 @@ public final class DescribableModel<T> implements Serializable {
      */
     @Deprecated
     public Map<String,Object> uninstantiate(T o) throws UnsupportedOperationException {
-        return uninstantiate2(o).toMap();
+        return uninstantiate2(o).toMutableMap();
     }
 
     /**
@@ -651,12 +1502,21 @@ public final class DescribableModel<T> implements Serializable {
             throw new IllegalArgumentException("Expected "+type+" but got null");
         if (!type.isInstance(o))
             throw new IllegalArgumentException("Expected "+type+" but got an instance of "+o.getClass());
+        return uninstantiate2(o, new IdentityHashMap<>());
+    }
+
+    /**
+     * @param seen
+     *      nested objects uninstantiated so far during this call, by identity,
+     *      so that objects shared across the graph (and their control instances) are dissected only once
+     */
+    private UninstantiatedDescribable uninstantiate2(T o, Map<Object,UninstantiatedDescribable> seen) {
 
         Map<String, Object> r = new TreeMap<String, Object>();
         Map<String, Object> constructorOnlyDataBoundProps = new TreeMap<String, Object>();
         Map<String, Object> nonDeprecatedDataBoundProps = new TreeMap<String, Object>();
         for (DescribableParameter p : parameters.values()) {
-            Object v = p.inspect(o);
+            Object v = p.inspect(o, seen);
             if (p.isRequired() && v==null) {
                 // instantiate() method treats missing properties as nulls, so we don't need to keep it
                 // but if it's for the setter, explicit null invocation is needed, so we need to keep it
@@ -671,24 +1531,14 @@ public final class DescribableModel<T> implements Serializable {
             }
         }
 
-        Object control = null;
-        try {
-            control = instantiate(constructorOnlyDataBoundProps, null);
-        } catch (Exception x) {
-            if (constructorOnlyDataBoundProps.values().stream().anyMatch(obj -> obj instanceof Secret)) {
-                LOGGER.log(Level.FINE, "Cannot create control version of " + type + " using " + constructorOnlyDataBoundProps, x);
-                LOGGER.log(Level.WARNING, "Cannot create control version of " + type + ". Secrets are involved, so details are available on more verbose logging levels.", x);
-            } else {
-                LOGGER.log(Level.WARNING, "Cannot create control version of " + type + " using " + constructorOnlyDataBoundProps, x);
-            }
-        }
+        Object control = control(constructorOnlyDataBoundProps);
 
         if (control!=null) {
             for (DescribableParameter p : parameters.values()) {
                 if (p.isRequired())
                     continue;
 
-                Object v = p.inspect(control);
+                Object v = p.inspect(control, seen);
 
                 // if the control has the same value as our object, we won't need to keep it
                 if (Objects.equals(v, r.get(p.getName()))) {
@@ -700,26 +1550,14 @@ public final class DescribableModel<T> implements Serializable {
 
         if (!nonDeprecatedDataBoundProps.keySet().equals(r.keySet())) {
             // we have some deprecated properties
-            control = null;
-            try {
-                control = instantiate(nonDeprecatedDataBoundProps, null);
-            } catch (Exception x) {
-                if (nonDeprecatedDataBoundProps.values().stream().anyMatch(obj -> obj instanceof Secret)) {
-                    LOGGER.log(Level.FINE,
-                            "Cannot create control version of " + type + " using " + nonDeprecatedDataBoundProps, x);
-                    LOGGER.log(Level.WARNING, "Cannot create control version of " + type + ". Secrets are involved, so details are available on more verbose logging levels.", x);
-                } else {
-                    LOGGER.log(Level.WARNING,
-                            "Cannot create control version of " + type + " using " + nonDeprecatedDataBoundProps, x);
-                }
-            }
+            control = control(nonDeprecatedDataBoundProps);
 
             if (control != null) {
                 for (DescribableParameter p : parameters.values()) {
                     if (!p.isDeprecated())
                         continue;
 
-                    Object v = p.inspect(control);
+                    Object v = p.inspect(control, seen);
 
                     // if the control has the same value as our object, we won't need to keep it
                     if (Objects.equals(v, r.get(p.getName()))) {
@@ -728,7 +1566,7 @@ public final class DescribableModel<T> implements Serializable {
                 }
             }
         }
-        UninstantiatedDescribable ud = new UninstantiatedDescribable(symbolOf(o), null, r);
+        UninstantiatedDescribable ud = new UninstantiatedDescribable(symbolOf(o), null, ModelArguments.of(this, r));
         ud.setModel(this);
         CustomDescribableModel cdm = CustomDescribableModel.of(type);
         if (cdm != null) {
@@ -739,6 +1577,298 @@ public final class DescribableModel<T> implements Serializable {
         return ud;
     }
 
+    /**
+     * Disects only those parts of a given instance which some property paths reach,
+     * otherwise like {@link #uninstantiate2(Object)}.
+     * Properties not on any path are neither read nor uninstantiated,
+     * and objects none of whose optional properties are selected need no control instance to find default values.
+     * Objects with a {@link CustomDescribableModel} on the way are uninstantiated completely.
+     *
+     * @param o a data-bound object
+     * @param paths property names separated by {@code .}, for example {@code scm.userRemoteConfigs[*].url};
+     *      {@code [*]} after a name stands for each element of a list or array, which is also understood when omitted,
+     *      and a path that ends at an object selects all of it
+     * @return constructor and/or setter parameters on the given paths
+     * @throws UnsupportedOperationException if the class does not follow the expected structure
+     * @throws IllegalArgumentException if a path is malformed, or names a property which an object on the way does not have;
+     *      below a property whose value may be of various subtypes, names which the subtype at hand lacks are skipped instead,
+     *      as they may be meant for another
+     */
+    public UninstantiatedDescribable uninstantiate2(T o, Collection<String> paths) throws UnsupportedOperationException, IllegalArgumentException {
+        if (o==null)
+            throw new IllegalArgumentException("Expected "+type+" but got null");
+        if (!type.isInstance(o))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+o.getClass());
+        return uninstantiate2(o, PropertyPaths.parse(paths), true);
+    }
+
+    /**
+     * @param strict whether to reject paths naming properties this model does not have
+     */
+    private UninstantiatedDescribable uninstantiate2(T o, PropertyPaths paths, boolean strict) {
+        if (paths.isAll() || CustomDescribableModel.of(type) != null) {
+            return uninstantiate2(o);
+        }
+        // decides on default values one property at a time
+        LazyArguments<T> arguments = new LazyArguments<>(this, o);
+        Map<String, Object> r = new TreeMap<String, Object>();
+        for (Map.Entry<String,PropertyPaths> e : paths.getChildren().entrySet()) {
+            String name = e.getKey();
+            if (!parameters.containsKey(name)) {
+                if (strict) {
+                    throw new IllegalArgumentException(type.getName() + " has no property " + name);
+                }
+                continue;
+            }
+            if (!arguments.containsKey(name)) {
+                // left at its default
+                continue;
+            }
+            r.put(name, e.getValue().isAll() ? arguments.get(name) : parameters.get(name).inspect(o, e.getValue()));
+        }
+        UninstantiatedDescribable ud = new UninstantiatedDescribable(symbolOf(o), null, ModelArguments.of(this, r));
+        ud.setModel(this);
+        return ud;
+    }
+
+    /**
+     * Used by {@link DescribableParameter#inspect(Object, Map)} for a nested object.
+     */
+    @SuppressWarnings("unchecked")
+    /*package*/ static UninstantiatedDescribable uninstantiate2_(Object o, Map<Object,UninstantiatedDescribable> seen) {
+        return new DescribableModel(o.getClass()).uninstantiate2(o, seen);
+    }
+
+    /**
+     * Used by {@link DescribableParameter#inspect(Object, PropertyPaths)} for a nested object.
+     *
+     * @param strict whether the object is exactly of its declared type, so that the paths below it are meant for its class
+     */
+    @SuppressWarnings("unchecked")
+    /*package*/ static UninstantiatedDescribable uninstantiate2_(Object o, PropertyPaths paths, boolean strict) {
+        return new DescribableModel(o.getClass()).uninstantiate2(o, paths, strict);
+    }
+
+    /**
+     * Disects a given instance like {@link #uninstantiate2(Object)} does,
+     * except that each property is inspected only when it is first read from {@link UninstantiatedDescribable#getArguments()},
+     * so reading a single argument does not uninstantiate the whole object graph.
+     * Values are remembered once read.
+     * The arguments are the same as those {@link #uninstantiate2(Object)} would produce,
+     * provided that {@code o} is not modified in the meantime.
+     *
+     * <p>
+     * Objects with a {@link CustomDescribableModel} are uninstantiated eagerly,
+     * since the customization applies to all arguments at once.
+     *
+     * @param o a data-bound object
+     * @return constructor and/or setter parameters
+     * @throws UnsupportedOperationException if the class does not follow the expected structure,
+     *      which may only be detected when reading the arguments
+     */
+    public UninstantiatedDescribable uninstantiateLazily(T o) throws UnsupportedOperationException {
+        if (o==null)
+            throw new IllegalArgumentException("Expected "+type+" but got null");
+        if (!type.isInstance(o))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+o.getClass());
+        if (CustomDescribableModel.of(type) != null) {
+            return uninstantiate2(o);
+        }
+        UninstantiatedDescribable ud = new UninstantiatedDescribable(symbolOf(o), null, new LazyArguments<>(this, o));
+        ud.setModel(this);
+        return ud;
+    }
+
+    /**
+     * Instantiates a control version of this type, whose properties show what their default values are.
+     *
+     * @return null if that is not possible, which is logged
+     */
+    /*package*/ @CheckForNull Object control(Map<String,Object> props) {
+        try {
+            return instantiate(props, null);
+        } catch (Exception x) {
+            // uninstantiating the same object over and over would otherwise print the same stack trace every time
+            long suppressed = CONTROL_WARNINGS.occurred(type.getName());
+            if (props.values().stream().anyMatch(obj -> obj instanceof Secret)) {
+                LOGGER.log(Level.FINE, x, () -> "Cannot create control version of " + type + " using " + props);
+                if (suppressed >= 0) {
+                    LOGGER.log(Level.WARNING, "Cannot create control version of " + type + ". Secrets are involved, so details are available on more verbose logging levels." + RepeatedWarnings.suffix(suppressed), x);
+                }
+            } else if (suppressed >= 0) {
+                LOGGER.log(Level.WARNING, "Cannot create control version of " + type + " using " + props + RepeatedWarnings.suffix(suppressed), x);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reports the structure of a given instance to a visitor as it is being dissected.
+     * The events are the same as those of {@code uninstantiate2(o).accept(visitor)},
+     * but no {@link UninstantiatedDescribable} tree is built,
+     * so the output can be streamed in memory proportional to the depth of the object graph rather than its size.
+     *
+     * @param o a data-bound object
+     * @param visitor receives the structure of {@code o}
+     * @throws UnsupportedOperationException if the class does not follow the expected structure
+     * @throws IOException if the visitor fails
+     * @see UninstantiatedDescribable#accept(DescribableVisitor)
+     */
+    public void traverse(T o, DescribableVisitor visitor) throws UnsupportedOperationException, IOException {
+        if (o==null)
+            throw new IllegalArgumentException("Expected "+type+" but got null");
+        if (!type.isInstance(o))
+            throw new IllegalArgumentException("Expected "+type+" but got an instance of "+o.getClass());
+        traverse(o, false, null, visitor);
+    }
+
+    /**
+     * @param nested
+     *      true if {@code o} is the value of a property of another object
+     * @param klass
+     *      how {@code o} is to be identified in that case
+     */
+    private void traverse(T o, boolean nested, @CheckForNull String klass, DescribableVisitor visitor) throws IOException {
+        if (CustomDescribableModel.of(type) != null) {
+            // customizations apply to a whole object, so build just this part of the tree
+            UninstantiatedDescribable ud = uninstantiate2(o);
+            if (nested) {
+                if (klass != null) {
+                    ud.setKlass(klass);
+                }
+                ud.setSymbol(symbolOf(o));
+            }
+            ud.accept(visitor);
+            return;
+        }
+        // everything about this object is collected before reporting it, in case that fails
+        Map<String,Object> arguments = dataBoundValues(o);
+        visitor.beginObject(symbolOf(o), klass, this);
+        for (Map.Entry<String,Object> e : arguments.entrySet()) {
+            visitor.property(e.getKey());
+            DescribableParameter.traverse(e.getValue(), parameters.get(e.getKey()).getRawType(), visitor);
+        }
+        visitor.endObject();
+    }
+
+    /**
+     * Used by {@link DescribableParameter#traverse} for a nested object.
+     */
+    /*package*/ static <T> void traverse_(Class<T> clazz, Object o, @CheckForNull String klass, DescribableVisitor visitor) throws IOException {
+        of(clazz).traverse(clazz.cast(o), true, klass, visitor);
+    }
+
+    /**
+     * Collects the data-bound properties of an object as they are found on it, without uninstantiating them,
+     * leaving out the same default values as {@link #uninstantiate2(Object)} would.
+     *
+     * @return property values sorted by name
+     */
+    private Map<String,Object> dataBoundValues(T o) {
+        Map<String, Object> r = new TreeMap<String, Object>();
+        Map<String, Object> constructorOnlyDataBoundProps = new TreeMap<String, Object>();
+        Map<String, Object> nonDeprecatedDataBoundProps = new TreeMap<String, Object>();
+        for (DescribableParameter p : parameters.values()) {
+            Object v = p.getValue(o);
+            if (p.isRequired() && v==null) {
+                continue;
+            }
+            r.put(p.getName(), v);
+            if (p.isRequired()) {
+                constructorOnlyDataBoundProps.put(p.getName(),v);
+            }
+            if (!p.isDeprecated()) {
+                nonDeprecatedDataBoundProps.put(p.getName(),v);
+            }
+        }
+
+        // instantiate accepts the raw values as well
+        Object control = control(constructorOnlyDataBoundProps);
+        if (control!=null) {
+            for (DescribableParameter p : parameters.values()) {
+                if (!p.isRequired() && sameValue(p.getValue(control), r.get(p.getName()), p.getRawType())) {
+                    r.remove(p.getName());
+                    nonDeprecatedDataBoundProps.remove(p.getName());
+                }
+            }
+        }
+
+        if (!nonDeprecatedDataBoundProps.keySet().equals(r.keySet())) {
+            control = control(nonDeprecatedDataBoundProps);
+            if (control != null) {
+                for (DescribableParameter p : parameters.values()) {
+                    if (p.isDeprecated() && sameValue(p.getValue(control), r.get(p.getName()), p.getRawType())) {
+                        r.remove(p.getName());
+                    }
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Checks whether two property values would be uninstantiated into equal values, without uninstantiating either.
+     * This follows the cases of {@link DescribableParameter#uncoerce}:
+     * values it renders as strings are compared as such,
+     * arrays and collections it turns into lists are compared item by item,
+     * nested data-bound objects property by property,
+     * and anything else it leaves as is with {@link Object#equals}.
+     *
+     * @param type
+     *      the declared type of the property
+     */
+    /*package*/ static boolean sameValue(@CheckForNull Object a, @CheckForNull Object b, Type type) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        String sa = DescribableParameter.uncoerceToString(a, type), sb = DescribableParameter.uncoerceToString(b, type);
+        if (sa != null || sb != null) {
+            return Objects.equals(sa != null ? sa : a, sb != null ? sb : b);
+        }
+        Type ia = DescribableParameter.uncoercedItemType(a, type), ib = DescribableParameter.uncoercedItemType(b, type);
+        if (ia != null || ib != null) {
+            if (ia == null || ib == null || sizeOf(a) != sizeOf(b)) {
+                // a list against a value left as is, which would have to be a list of the same uncoerced items
+                return false;
+            }
+            for (Iterator<?> i = iteratorOf(a), j = iteratorOf(b); i.hasNext(); ) {
+                if (!sameValue(i.next(), j.next(), ia)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        Class<?> c = a.getClass();
+        if (c == b.getClass() && !c.getName().startsWith("java.") && !(a instanceof Enum)) {
+            try {
+                return sameProperties(a, b);
+            } catch (UnsupportedOperationException | NoStaplerConstructorException x) {
+                // not a data-bound object after all, so it would be left as is
+            }
+        }
+        return a.equals(b);
+    }
+
+    /**
+     * Compares the data-bound properties of two objects of the same class.
+     */
+    private static boolean sameProperties(Object a, Object b) {
+        Class<?> c = a.getClass();
+        DescribableModel<?> m = of(c);
+        if (CustomDescribableModel.of(c) != null) {
+            return Objects.equals(uninstantiate2_(a), uninstantiate2_(b));
+        }
+        for (DescribableParameter p : m.getParameters()) {
+            if (!sameValue(p.getValue(a), p.getValue(b), p.getRawType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Finds a symbol for an instance if there's one, or return null.
      */
@@ -854,6 +1984,10 @@ public final class DescribableModel<T> implements Serializable {
 
     private static final Logger LOGGER = Logger.getLogger(DescribableModel.class.getName());
 
+    private static final RepeatedWarnings CONTROL_WARNINGS = new RepeatedWarnings();
+
+    private static final RepeatedWarnings UNKNOWN_PARAMETER_WARNINGS = new RepeatedWarnings();
+
     private static final long serialVersionUID = 1L;
 
     // TODO: switch to use {@link hudson.util.ReflectionUtils}
@@ -10,11 +10,16 @@ import org.kohsuke.stapler.NoStaplerConstructorException;
 
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -43,6 +48,11 @@ public final class DescribableParameter {
      */
     /*package*/ final Setter setter;
 
+    /**
+     * How to read this property from an instance, looked up lazily by {@link #getValue(Object)}.
+     */
+    private Getter getter;
+
     /*package*/ DescribableParameter(DescribableModel<?> parent, Type type, String name, Setter setter) {
         this.parent = parent;
         this.rawType = type;
@@ -139,27 +149,33 @@ public final class DescribableParameter {
      * Given an configured instance, try to infer the current value of the property.
      */
     /*package*/ Object inspect(Object o) {
-        return uncoerce(getValue(o), rawType);
+        return uncoerce(getValue(o), rawType, null, null);
     }
 
-    private Object getValue(Object o) {
-        Class<?> ownerClass = parent.getType();
+    /**
+     * Like {@link #inspect(Object)}, but reusing what nested objects were uninstantiated into before.
+     *
+     * @param seen
+     *      nested objects uninstantiated so far, by identity; added to
+     */
+    /*package*/ Object inspect(Object o, Map<Object,UninstantiatedDescribable> seen) {
+        return uncoerce(getValue(o), rawType, null, seen);
+    }
+
+    /**
+     * Like {@link #inspect(Object)}, but uninstantiates only what the given paths reach in nested objects.
+     */
+    /*package*/ Object inspect(Object o, PropertyPaths paths) {
+        return uncoerce(getValue(o), rawType, paths, null);
+    }
+
+    /*package*/ Object getValue(Object o) {
         try {
-            try {
-                return ownerClass.getField(name).get(o);
-            } catch (NoSuchFieldException x) {
-                // OK, check for getter instead
-            }
-            try {
-                return ownerClass.getMethod("get" + getCapitalizedName()).invoke(o);
-            } catch (NoSuchMethodException x) {
-                // one more check
-            }
-            try {
-                return ownerClass.getMethod("is" + getCapitalizedName()).invoke(o);
-            } catch (NoSuchMethodException x) {
-                throw new UnsupportedOperationException("no public field ‘" + name + "’ (or getter method) found in " + ownerClass);
+            Getter g = getter;
+            if (g == null) {
+                getter = g = findGetter();
             }
+            return g.get(o);
         } catch (UnsupportedOperationException x) {
             throw x;
         } catch (Exception x) {
@@ -167,47 +183,99 @@ public final class DescribableParameter {
         }
     }
 
+    /**
+     * Looks up how to read this property, which is done only once per parameter.
+     */
+    private Getter findGetter() throws Exception {
+        Class<?> ownerClass = parent.getType();
+        if (ownerClass.isRecord()) {
+            for (RecordComponent c : ownerClass.getRecordComponents()) {
+                if (c.getName().equals(name)) {
+                    return Getter.create(c.getAccessor());
+                }
+            }
+        }
+        try {
+            return Getter.create(ownerClass.getField(name));
+        } catch (NoSuchFieldException x) {
+            // OK, check for getter instead
+        }
+        try {
+            return Getter.create(ownerClass.getMethod("get" + getCapitalizedName()));
+        } catch (NoSuchMethodException x) {
+            // one more check
+        }
+        try {
+            return Getter.create(ownerClass.getMethod("is" + getCapitalizedName()));
+        } catch (NoSuchMethodException x) {
+            throw new UnsupportedOperationException("no public field ‘" + name + "’ (or getter method) found in " + ownerClass);
+        }
+    }
 
-    private Object uncoerce(Object o, Type type) {
-        if (type instanceof Class && ((Class) type).isEnum() && o instanceof Enum) {
-            return ((Enum) o).name();
-        } else if (type == URL.class && o instanceof URL) {
-            return o.toString();
-        } else if (type == Result.class && o instanceof Result) {
-            return o.toString();
-        } else if ((type == Character.class || type == char.class) && o instanceof Character) {
-            return o.toString();
-        } else if (o instanceof Object[]) {
-            Object[] array = (Object[]) o;
-            List<Object> list = new ArrayList<Object>(array.length);
-            for (Object elt : array) {
-                list.add(uncoerce(elt, array.getClass().getComponentType()));
+
+    /**
+     * @param paths
+     *      if not null, nested objects are only partly uninstantiated
+     * @param seen
+     *      if not null, nested objects uninstantiated so far, by identity, so that an object reachable
+     *      through several references is uninstantiated once;
+     *      references after the first get a struct of their own over the frozen arguments of the first
+     */
+    private Object uncoerce(Object o, Type type, @CheckForNull PropertyPaths paths, @CheckForNull Map<Object,UninstantiatedDescribable> seen) {
+        String string = uncoerceToString(o, type);
+        if (string != null) {
+            return string;
+        } else if (o != null && o.getClass().isArray()) {
+            // covers arrays of primitives as well as Object[]
+            Class<?> componentType = o.getClass().getComponentType();
+            if (o instanceof Object[] && isNestedObjects(Arrays.asList((Object[]) o))) {
+                return uncoerceInParallel(Arrays.asList((Object[]) o), componentType, paths, seen);
+            }
+            int length = Array.getLength(o);
+            List<Object> list = new ArrayList<Object>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(uncoerce(Array.get(o, i), componentType, paths, seen));
             }
             return list;
         } else if (o instanceof Collection && Types.isSubClassOf(type, Collection.class)) {
+            Type itemType = Types.getTypeArgument(Types.getBaseClass(type,Collection.class),0,Object.class);
+            if (o instanceof List && isNestedObjects((List<?>) o)) {
+                return uncoerceInParallel((List<?>) o, itemType, paths, seen);
+            }
             List<Object> list = new ArrayList<Object>(((Collection) o).size());
             for (Object elt : (Collection<?>) o) {
-                list.add(uncoerce(elt, Types.getTypeArgument(Types.getBaseClass(type,Collection.class),0,Object.class)));
+                list.add(uncoerce(elt, itemType, paths, seen));
             }
             return list;
         } else if (o != null && !o.getClass().getName().startsWith("java.")) {
+            UninstantiatedDescribable known = seen != null ? seen.get(o) : null;
+            if (known != null) {
+                if (!known.isFrozen()) {
+                    // from now on shared, so the first reference may still be modified on its own
+                    known = known.freeze();
+                    seen.put(o, known);
+                }
+                // the class name depends on the declared type of each reference
+                UninstantiatedDescribable shared = new UninstantiatedDescribable(known.getSymbol(), klassOf(o, type), known.getArguments());
+                shared.setModel(known.getModel());
+                return shared;
+            }
             try {
                 // Check to see if this can be treated as a data-bound struct.
-                UninstantiatedDescribable nested = DescribableModel.uninstantiate2_(o);
-                if (type != o.getClass()) {
-                    int simpleNameCount = 0;
-                    for (Class<?> c : findSubtypes(Types.erasure(type))) {
-                        if (c.getSimpleName().equals(o.getClass().getSimpleName())) {
-                            simpleNameCount++;
-                        }
-                    }
-                    if (simpleNameCount > 1) {
-                        nested.setKlass(o.getClass().getName());
-                    } else {
-                        nested.setKlass(o.getClass().getSimpleName());
-                    }
+                UninstantiatedDescribable nested;
+                if (paths != null) {
+                    nested = DescribableModel.uninstantiate2_(o, paths, type == o.getClass());
+                } else if (seen != null) {
+                    nested = DescribableModel.uninstantiate2_(o, seen);
+                } else {
+                    nested = DescribableModel.uninstantiate2_(o);
                 }
+                // only now that it is known to be a struct
+                nested.setKlass(klassOf(o, type));
                 nested.setSymbol(symbolOf(o));
+                if (seen != null) {
+                    seen.put(o, nested);
+                }
                 return nested;
             } catch (UnsupportedOperationException x) {
                 // then leave it raw
@@ -221,5 +289,131 @@ public final class DescribableParameter {
         return o;
     }
 
+    /**
+     * The string {@link #uncoerce} turns a value of the given declared type into, if it does so.
+     */
+    /*package*/ static @CheckForNull String uncoerceToString(@CheckForNull Object o, Type type) {
+        if (type instanceof Class && ((Class) type).isEnum() && o instanceof Enum) {
+            return ((Enum) o).name();
+        } else if (type == URL.class && o instanceof URL) {
+            return o.toString();
+        } else if (type == Result.class && o instanceof Result) {
+            return o.toString();
+        } else if ((type == Character.class || type == char.class) && o instanceof Character) {
+            return o.toString();
+        }
+        return null;
+    }
+
+    /**
+     * If {@link #uncoerce} turns a value of the given declared type into a list, the type its items are uncoerced as.
+     */
+    /*package*/ static @CheckForNull Type uncoercedItemType(@CheckForNull Object o, Type type) {
+        if (o != null && o.getClass().isArray()) {
+            return o.getClass().getComponentType();
+        } else if (o instanceof Collection && Types.isSubClassOf(type, Collection.class)) {
+            return Types.getTypeArgument(Types.getBaseClass(type,Collection.class),0,Object.class);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether there are at least {@link DescribableModel#PARALLEL_UNCOERCION_THRESHOLD} elements,
+     * and they are nested objects to uninstantiate rather than simple values.
+     */
+    private static boolean isNestedObjects(List<?> elements) {
+        if (!ParallelElements.worthwhile(elements.size(), PARALLEL_UNCOERCION_THRESHOLD)) {
+            return false;
+        }
+        Object first = elements.get(0);
+        return first != null && !(first instanceof Enum) && !first.getClass().getName().startsWith("java.");
+    }
+
+    /**
+     * Uninstantiates elements with {@link ParallelElements}.
+     * A {@code seen} map is shared by all elements, so it is synchronized for the duration;
+     * an object reachable from several elements may then be uninstantiated more than once, with the same result.
+     */
+    private Object uncoerceInParallel(List<?> elements, Type itemType, @CheckForNull PropertyPaths paths, @CheckForNull Map<Object,UninstantiatedDescribable> seen) {
+        Map<Object,UninstantiatedDescribable> shared = seen != null ? Collections.synchronizedMap(seen) : null;
+        try {
+            return new ArrayList<>(Arrays.asList(ParallelElements.apply(elements, (i, elt) -> uncoerce(elt, itemType, paths, shared))));
+        } catch (RuntimeException x) {
+            throw x;
+        } catch (Exception x) {
+            if (x instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException(x);
+        }
+    }
+
+    /**
+     * Determines the {@link UninstantiatedDescribable#getKlass()} of a nested object:
+     * none if it is exactly of the declared type,
+     * otherwise its simple name, or its fully qualified name if the simple name would be ambiguous.
+     */
+    private static String klassOf(Object o, Type type) {
+        if (type == o.getClass()) {
+            return null;
+        }
+        int simpleNameCount = 0;
+        for (Class<?> c : findSubtypes(Types.erasure(type))) {
+            if (c.getSimpleName().equals(o.getClass().getSimpleName())) {
+                simpleNameCount++;
+            }
+        }
+        if (simpleNameCount > 1) {
+            return o.getClass().getName();
+        } else {
+            return o.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Reports a value found by {@link #getValue(Object)} to a visitor,
+     * the way {@link #uncoerce(Object, Type, PropertyPaths, Map)} would have turned it into an argument of an {@link UninstantiatedDescribable}.
+     */
+    /*package*/ static void traverse(Object o, Type type, DescribableVisitor visitor) throws IOException {
+        String string = uncoerceToString(o, type);
+        if (string != null) {
+            visitor.scalar(string);
+        } else if (o != null && o.getClass().isArray()) {
+            Class<?> componentType = o.getClass().getComponentType();
+            int length = Array.getLength(o);
+            visitor.beginList(length);
+            for (int i = 0; i < length; i++) {
+                traverse(Array.get(o, i), componentType, visitor);
+            }
+            visitor.endList();
+        } else if (o instanceof Collection && Types.isSubClassOf(type, Collection.class)) {
+            Type elementType = Types.getTypeArgument(Types.getBaseClass(type,Collection.class),0,Object.class);
+            visitor.beginList(((Collection) o).size());
+            for (Object elt : (Collection<?>) o) {
+                traverse(elt, elementType, visitor);
+            }
+            visitor.endList();
+        } else if (o instanceof List) {
+            // left raw by uncoerce, since the declared type is no collection, but still a list in the struct
+            UninstantiatedDescribable.accept(o, visitor);
+        } else {
+            if (o != null && !o.getClass().getName().startsWith("java.")) {
+                try {
+                    // Check to see if this can be treated as a data-bound struct.
+                    DescribableModel.traverse_(o.getClass(), o, klassOf(o, type), visitor);
+                    return;
+                } catch (UnsupportedOperationException x) {
+                    // then leave it raw
+                    if (!(x.getCause() instanceof NoStaplerConstructorException)) {
+                        LOGGER.log(Level.WARNING, "failed to uncoerce " + o, x);
+                    }
+                } catch (NoStaplerConstructorException x) {
+                    // leave it raw
+                }
+            }
+            visitor.scalar(o);
+        }
+    }
+
     private static final Logger LOGGER = Logger.getLogger(DescribableParameter.class.getName());
 }
@@ -0,0 +1,54 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+
+/**
+ * Receives the structure of a data-bound object as a series of events,
+ * so that it can be rendered (as JSON, YAML, Groovy, …) without building a tree first.
+ *
+ * <p>
+ * An object is reported as {@link #beginObject}, then {@link #property} followed by the events of its value
+ * for each of its arguments, then {@link #endObject}.
+ * A value is either a nested object, a list reported as {@link #beginList}, the events of each item, and {@link #endList},
+ * or else a {@link #scalar}.
+ * The shape is the same as that of {@link UninstantiatedDescribable}.
+ *
+ * @see DescribableModel#traverse(Object, DescribableVisitor)
+ * @see UninstantiatedDescribable#accept(DescribableVisitor)
+ */
+public interface DescribableVisitor {
+    /**
+     * Starts an object.
+     *
+     * @param symbol
+     *      see {@link UninstantiatedDescribable#getSymbol()}
+     * @param klass
+     *      see {@link UninstantiatedDescribable#getKlass()}
+     * @param model
+     *      see {@link UninstantiatedDescribable#getModel()}
+     */
+    void beginObject(@CheckForNull String symbol, @CheckForNull String klass, @CheckForNull DescribableModel<?> model) throws IOException;
+
+    /**
+     * Names the argument of the current object whose value is reported next.
+     */
+    void property(String name) throws IOException;
+
+    /**
+     * Starts a list.
+     *
+     * @param size
+     *      the number of items that will follow
+     */
+    void beginList(int size) throws IOException;
+
+    void endList() throws IOException;
+
+    /**
+     * Reports a value which is not a nested object or list, such as a {@link String}, a primitive wrapper, or {@code null}.
+     */
+    void scalar(@CheckForNull Object value) throws IOException;
+
+    void endObject() throws IOException;
+}
@@ -0,0 +1,33 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Abstracts away how to read a value from a field or via a getter method.
+ * The counterpart of {@link Setter}.
+ */
+abstract class Getter {
+    /**
+     * Gets the value of the method/field that this {@link Getter} encapsulates.
+     */
+    abstract Object get(Object instance) throws Exception;
+
+    static Getter create(final Method m) {
+        return new Getter() {
+            @Override
+            Object get(Object instance) throws Exception {
+                return m.invoke(instance);
+            }
+        };
+    }
+
+    static Getter create(final Field f) {
+        return new Getter() {
+            @Override
+            Object get(Object instance) throws Exception {
+                return f.get(instance);
+            }
+        };
+    }
+}
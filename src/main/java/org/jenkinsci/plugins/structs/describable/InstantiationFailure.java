@@ -0,0 +1,283 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.util.Secret;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.BaseStream;
+
+/**
+ * Thrown when {@link DescribableModel#instantiate(Map, hudson.model.TaskListener)} fails.
+ *
+ * <p>
+ * Unlike a message built up front from the whole argument tree at every level of nesting,
+ * the arguments are rendered only to a bounded length, with long strings, lists and maps cut short,
+ * and the rest of the message only when asked for.
+ * The arguments are rendered when the failure is created, so that a map modified afterwards is shown as it was;
+ * an {@link Iterable} which is not a {@link Collection}, or a {@link BaseStream}, may only be traversable once
+ * and may already have been consumed by then, so it is shown by its type alone.
+ * Rather than repeating the messages of nested failures, it names the path to the parameter which failed,
+ * such as {@code steps[2].script}, followed by the original problem.
+ * As before, if the arguments include a {@link Secret}, they are left out of the message altogether,
+ * as is the original problem.
+ *
+ * <p>
+ * The arguments themselves, and the original problem, stay reachable until the exception is collected,
+ * though they are not serialized.
+ */
+final class InstantiationFailure extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum length of the rendered arguments, and of the original problem.
+     */
+    private static final int ARGUMENTS_LIMIT = 1024;
+
+    /**
+     * Maximum length of any one rendered value.
+     */
+    private static final int VALUE_LIMIT = 200;
+
+    /**
+     * The type which could not be instantiated, or null for a failure of one list element.
+     */
+    private final transient Class<?> type;
+    /**
+     * Only compared by identity in {@link #isFor}.
+     */
+    private final transient Map<String,?> arguments;
+    /**
+     * {@link #arguments} as rendered on creation, or null if there are none or they involve {@link Secret}s.
+     */
+    private final @CheckForNull String renderedArguments;
+    /**
+     * Path to the failing parameter relative to {@link #type}, if known.
+     */
+    private final @CheckForNull String path;
+    private final transient Throwable problem;
+    /**
+     * Whether a {@link Secret} is among the arguments, or those of a nested failure, in which case neither is kept as the cause.
+     */
+    private final boolean secrets;
+    private volatile String message;
+
+    InstantiationFailure(Class<?> type, Map<String,?> arguments, @CheckForNull String parameter, Exception x) {
+        this.type = type;
+        this.arguments = arguments;
+        boolean secrets = x instanceof InstantiationFailure && ((InstantiationFailure) x).secrets || containsSecret(arguments);
+        this.secrets = secrets;
+        if (secrets) {
+            renderedArguments = null;
+        } else {
+            StringBuilder b = new StringBuilder();
+            append(b, arguments, ARGUMENTS_LIMIT);
+            renderedArguments = b.toString();
+        }
+        this.path = parameter == null ? null : parameter + subpath(x);
+        this.problem = problem(x);
+        if (!secrets) {
+            initCause(x);
+        }
+    }
+
+    /**
+     * For a failure to coerce one element of a list or array.
+     */
+    InstantiationFailure(int index, Exception x) {
+        this.type = null;
+        this.arguments = null;
+        this.renderedArguments = null;
+        this.secrets = x instanceof InstantiationFailure && ((InstantiationFailure) x).secrets;
+        this.path = "[" + index + "]" + subpath(x);
+        this.problem = problem(x);
+        if (!secrets) {
+            initCause(x);
+        }
+    }
+
+    /**
+     * Whether this failed for the given arguments to the given type, rather than for a nested object.
+     */
+    boolean isFor(Class<?> type, Map<String,?> arguments) {
+        return this.type == type && this.arguments == arguments;
+    }
+
+    boolean involvesSecrets() {
+        return secrets;
+    }
+
+    private static String subpath(Exception x) {
+        if (x instanceof InstantiationFailure) {
+            String p = ((InstantiationFailure) x).path;
+            if (p != null) {
+                return p.startsWith("[") ? p : "." + p;
+            }
+        }
+        return "";
+    }
+
+    private static Throwable problem(Exception x) {
+        return x instanceof InstantiationFailure ? ((InstantiationFailure) x).problem : x;
+    }
+
+    @Override
+    public String getMessage() {
+        String m = message;
+        if (m == null) {
+            message = m = render();
+        }
+        return m;
+    }
+
+    private String render() {
+        StringBuilder b = new StringBuilder();
+        if (type == null) {
+            b.append("Could not coerce element");
+        } else if (secrets) {
+            b.append("Could not instantiate arguments for ").append(type.getName());
+        } else {
+            b.append("Could not instantiate ").append(renderedArguments).append(" for ").append(type.getName());
+        }
+        if (path != null) {
+            b.append(" at ").append(path);
+        }
+        if (secrets) {
+            return b.append(". Secrets are involved, so details are available on more verbose logging levels.").toString();
+        }
+        b.append(": ");
+        appendTruncated(b, String.valueOf(problem), ARGUMENTS_LIMIT);
+        return b.toString();
+    }
+
+    /**
+     * Renders a value much as {@link Object#toString} would, stopping at the limit.
+     *
+     * @return false if the limit was reached
+     */
+    private static boolean append(StringBuilder b, @CheckForNull Object v, int limit) {
+        if (b.length() >= limit) {
+            b.append("…");
+            return false;
+        }
+        if (v instanceof Map) {
+            b.append('{');
+            boolean first = true;
+            for (Map.Entry<?,?> e : ((Map<?,?>) v).entrySet()) {
+                if (!first) {
+                    b.append(", ");
+                }
+                first = false;
+                if (!append(b, e.getKey(), limit)) {
+                    return false;
+                }
+                b.append('=');
+                if (!append(b, e.getValue(), limit)) {
+                    return false;
+                }
+            }
+            b.append('}');
+        } else if (v instanceof UninstantiatedDescribable) {
+            UninstantiatedDescribable ud = (UninstantiatedDescribable) v;
+            if (ud.getSymbol() != null) {
+                b.append('@').append(ud.getSymbol());
+            }
+            if (ud.getKlass() != null) {
+                b.append('$').append(ud.getKlass());
+            }
+            if (!append(b, ud.getArguments(), limit)) {
+                return false;
+            }
+        } else if (v instanceof Iterable && !(v instanceof Collection) || v instanceof BaseStream) {
+            b.append('<').append(v.getClass().getName()).append('>');
+        } else if (v instanceof Collection || v != null && v.getClass().isArray()) {
+            b.append('[');
+            boolean first = true;
+            for (Iterator<?> it = iterator(v); it.hasNext(); ) {
+                if (!first) {
+                    b.append(", ");
+                }
+                first = false;
+                if (!append(b, it.next(), limit)) {
+                    return false;
+                }
+            }
+            b.append(']');
+        } else {
+            appendTruncated(b, String.valueOf(v), Math.min(VALUE_LIMIT, limit - b.length()));
+            return b.length() < limit;
+        }
+        return true;
+    }
+
+    private static void appendTruncated(StringBuilder b, String s, int limit) {
+        if (s.length() > limit) {
+            b.append(s, 0, limit).append("… (").append(s.length()).append(" characters)");
+        } else {
+            b.append(s);
+        }
+    }
+
+    private static Iterator<?> iterator(Object v) {
+        if (v instanceof Collection) {
+            return ((Collection<?>) v).iterator();
+        }
+        int length = Array.getLength(v);
+        return new Iterator<Object>() {
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < length;
+            }
+
+            @Override
+            public Object next() {
+                return Array.get(v, i++);
+            }
+        };
+    }
+
+    /**
+     * Looks for a {@link Secret} anywhere among the arguments, without rendering anything.
+     * As when rendering, an {@link Iterable} which may only be traversable once is not looked into.
+     */
+    private static boolean containsSecret(@CheckForNull Object v) {
+        if (v instanceof Secret) {
+            return true;
+        } else if (v instanceof Map) {
+            for (Object o : ((Map<?,?>) v).values()) {
+                if (containsSecret(o)) {
+                    return true;
+                }
+            }
+        } else if (v instanceof UninstantiatedDescribable) {
+            return containsSecret(((UninstantiatedDescribable) v).getArguments());
+        } else if (v instanceof Collection) {
+            for (Object o : (Collection<?>) v) {
+                if (containsSecret(o)) {
+                    return true;
+                }
+            }
+        } else if (v instanceof Object[]) {
+            for (Object o : (Object[]) v) {
+                if (containsSecret(o)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Since the type and the original problem are not kept, renders the message first.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
+}
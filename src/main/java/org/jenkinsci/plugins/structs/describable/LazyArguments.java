@@ -0,0 +1,201 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Arguments of {@link DescribableModel#uninstantiateLazily(Object)}, which inspects each property of the object
+ * only once it is asked for, and remembers the result.
+ *
+ * <p>
+ * Whether a property is present at all is decided like {@link DescribableModel#uninstantiate2(Object)} does,
+ * by comparing it with control instances made from the required properties (and, for deprecated properties,
+ * the other properties), but on the raw values, so that deciding on one property does not uninstantiate the others.
+ * Control instances are made only when an optional property is first looked at.
+ * Iteration, {@link #size} and the like decide on every property, but still uninstantiate only the values iterated over.
+ */
+final class LazyArguments<T> extends AbstractMap<String,Object> {
+
+    private static final byte UNKNOWN = 0, PRESENT = 1, ABSENT = 2;
+
+    private final DescribableModel<T> model;
+    private final T o;
+    /**
+     * Parameters of {@link #model} in the order of {@link DescribableModel#getSortedParameterNames()}.
+     */
+    private final String[] names;
+    private final DescribableParameter[] parameters;
+
+    private final byte[] state;
+    private final Object[] raw;
+    private final boolean[] rawRead;
+    private final Object[] values;
+    private final boolean[] inspected;
+    /**
+     * Nested objects uninstantiated so far, shared by all properties.
+     */
+    private final Map<Object,UninstantiatedDescribable> seen = new IdentityHashMap<>();
+
+    private Object constructorOnlyControl, nonDeprecatedControl;
+    private boolean constructorOnlyControlMade, nonDeprecatedControlMade;
+
+    LazyArguments(DescribableModel<T> model, T o) {
+        this.model = model;
+        this.o = o;
+        names = model.getSortedParameterNames();
+        parameters = new DescribableParameter[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parameters[i] = model.getParameter(names[i]);
+        }
+        state = new byte[names.length];
+        raw = new Object[names.length];
+        rawRead = new boolean[names.length];
+        values = new Object[names.length];
+        inspected = new boolean[names.length];
+    }
+
+    private Object raw(int i) {
+        if (!rawRead[i]) {
+            raw[i] = parameters[i].getValue(o);
+            rawRead[i] = true;
+        }
+        return raw[i];
+    }
+
+    private synchronized boolean isPresent(int i) {
+        if (state[i] == UNKNOWN) {
+            state[i] = decide(i) ? PRESENT : ABSENT;
+        }
+        return state[i] == PRESENT;
+    }
+
+    private boolean decide(int i) {
+        DescribableParameter p = parameters[i];
+        Object v = raw(i);
+        if (p.isRequired()) {
+            // instantiate() method treats missing properties as nulls, so we don't need to keep it
+            return v != null;
+        }
+        Object control = constructorOnlyControl();
+        if (control != null && DescribableModel.sameValue(p.getValue(control), v, p.getRawType())) {
+            return false;
+        }
+        if (!p.isDeprecated()) {
+            return true;
+        }
+        control = nonDeprecatedControl();
+        return control == null || !DescribableModel.sameValue(p.getValue(control), v, p.getRawType());
+    }
+
+    private Object constructorOnlyControl() {
+        if (!constructorOnlyControlMade) {
+            Map<String,Object> props = new TreeMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (parameters[i].isRequired() && raw(i) != null) {
+                    props.put(names[i], raw(i));
+                }
+            }
+            constructorOnlyControl = model.control(props);
+            constructorOnlyControlMade = true;
+        }
+        return constructorOnlyControl;
+    }
+
+    private Object nonDeprecatedControl() {
+        if (!nonDeprecatedControlMade) {
+            Map<String,Object> props = new TreeMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (!parameters[i].isDeprecated() && isPresent(i)) {
+                    props.put(names[i], raw(i));
+                }
+            }
+            nonDeprecatedControl = model.control(props);
+            nonDeprecatedControlMade = true;
+        }
+        return nonDeprecatedControl;
+    }
+
+    private synchronized Object value(int i) {
+        if (!inspected[i]) {
+            values[i] = parameters[i].inspect(o, seen);
+            inspected[i] = true;
+        }
+        return values[i];
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(names, key);
+        return i >= 0 && isPresent(i) ? i : -1;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? value(i) : null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (isPresent(i)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String,Object>> entrySet() {
+        return new AbstractSet<Entry<String,Object>>() {
+            @Override
+            public int size() {
+                return LazyArguments.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String,Object>> iterator() {
+                return new Iterator<Entry<String,Object>>() {
+                    int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < names.length && !isPresent(i)) {
+                            i++;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < names.length;
+                    }
+
+                    @Override
+                    public Entry<String,Object> next() {
+                        if (next >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next;
+                        next = advance(i + 1);
+                        return new SimpleImmutableEntry<>(names[i], value(i));
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Read-only arguments of an {@link UninstantiatedDescribable} whose keys are all parameters of a known {@link DescribableModel}.
+ *
+ * <p>
+ * Rather than a node per entry as in {@link TreeMap}, values are kept in an array indexed by
+ * the position of the parameter in {@link DescribableModel#getSortedParameterNames()},
+ * which is shared by all instances for the model, and a bit mask records which parameters are present,
+ * so that present {@code null} values can be told apart from absent ones.
+ * Iteration is in alphabetical order, like that of the {@link TreeMap} used before.
+ *
+ * <p>
+ * Serialized as a {@link TreeMap}.
+ */
+final class ModelArguments extends AbstractMap<String,Object> implements Serializable {
+
+    private final String[] names;
+    private final Object[] values;
+    private final long present;
+
+    private ModelArguments(String[] names, Object[] values, long present) {
+        this.names = names;
+        this.values = values;
+        this.present = present;
+    }
+
+    /**
+     * Packs arguments if possible.
+     *
+     * @return {@code arguments} itself if any key is not a parameter of the model, or the model has too many parameters
+     */
+    static Map<String,Object> of(DescribableModel<?> model, Map<String,Object> arguments) {
+        String[] names = model.getSortedParameterNames();
+        if (names.length > Long.SIZE) {
+            return arguments;
+        }
+        Object[] values = new Object[names.length];
+        long present = 0;
+        for (Map.Entry<String,Object> e : arguments.entrySet()) {
+            int i = Arrays.binarySearch(names, e.getKey());
+            if (i < 0) {
+                return arguments;
+            }
+            values[i] = e.getValue();
+            present |= 1L << i;
+        }
+        return new ModelArguments(names, values, present);
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(names, key);
+        return i >= 0 && (present & (1L << i)) != 0 ? i : -1;
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(present);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return present == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : null;
+    }
+
+    @Override
+    public Set<Entry<String,Object>> entrySet() {
+        return new AbstractSet<Entry<String,Object>>() {
+            @Override
+            public int size() {
+                return ModelArguments.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String,Object>> iterator() {
+                return new Iterator<Entry<String,Object>>() {
+                    long remaining = present;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining != 0;
+                    }
+
+                    @Override
+                    public Entry<String,Object> next() {
+                        if (remaining == 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = Long.numberOfTrailingZeros(remaining);
+                        remaining &= remaining - 1;
+                        return new SimpleImmutableEntry<>(names[i], values[i]);
+                    }
+                };
+            }
+        };
+    }
+
+    private Object writeReplace() {
+        return new TreeMap<>(this);
+    }
+
+    private static final long serialVersionUID = 1L;
+}
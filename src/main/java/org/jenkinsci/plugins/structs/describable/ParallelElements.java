@@ -0,0 +1,137 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Applies a function to each element of a large list on a pool of its own, by default with a thread per processor,
+ * for {@link DescribableModel} and {@link DescribableParameter} to convert nested objects on several cores.
+ * Threads of the pool exit once idle for {@link #KEEP_ALIVE} seconds, so that an unused pool holds none,
+ * even if it is never shut down, as after the plugin is reloaded within the same JVM.
+ * Since the function may well block, for example on class loading or locks in plugin code,
+ * it does not run on the {@linkplain ForkJoinPool#commonPool() common pool}, where it could hold up unrelated work.
+ * Nested calls from the pool's own threads help with the work they wait for, rather than exhausting the pool.
+ *
+ * <p>
+ * The results come back in the order of the elements.
+ * The elements are split into contiguous chunks, each handled in order, with the
+ * {@linkplain Thread#getContextClassLoader() context class loader} and {@linkplain Jenkins#getAuthentication2() authentication}
+ * of the calling thread.
+ * If the function fails for some elements, the failure for the lowest index is thrown, as it would have been when going one by one;
+ * chunks which only start after an element known to have failed are skipped,
+ * but elements after the failing one may still have been handled by then.
+ */
+final class ParallelElements {
+
+    /**
+     * Number of chunks per unit of parallelism, to even out chunks which take longer than others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Number of threads converting elements at once.
+     */
+    private static final int PARALLELISM = Math.max(1, Math.min(0x7fff,
+            SystemProperties.getInteger(ParallelElements.class.getName() + ".PARALLELISM", Runtime.getRuntime().availableProcessors())));
+
+    /**
+     * Seconds after which an idle thread of the pool exits.
+     */
+    private static final long KEEP_ALIVE = Math.max(1, SystemProperties.getLong(ParallelElements.class.getName() + ".KEEP_ALIVE", 60L));
+
+    private ParallelElements() {}
+
+    /**
+     * Created on first use, which needs a list at least as long as one of the thresholds, normally left at 0.
+     */
+    private static final class Pool {
+        // no core threads, and as many spare threads for blocked joins as a default pool would allow
+        static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            t.setName(ParallelElements.class.getSimpleName() + " " + t.getName());
+            t.setDaemon(true);
+            return t;
+        }, null, false, 0, PARALLELISM + 256, 1, null, KEEP_ALIVE, TimeUnit.SECONDS);
+    }
+
+    interface Function {
+        Object apply(int index, Object element) throws Exception;
+    }
+
+    /**
+     * Whether lists of the given size should be handled in parallel.
+     *
+     * @param threshold
+     *      minimum size, or 0 to always go one by one
+     */
+    static boolean worthwhile(int size, int threshold) {
+        return threshold > 0 && size >= threshold && size > 1 && PARALLELISM > 1;
+    }
+
+    static Object[] apply(List<?> list, Function f) throws Exception {
+        // each chunk reads its elements by index
+        List<?> elements = list instanceof RandomAccess ? list : Arrays.asList(list.toArray());
+        int size = elements.size();
+        Object[] results = new Object[size];
+        Exception[] failures = new Exception[size];
+        AtomicInteger firstFailure = new AtomicInteger(size);
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Authentication auth = Jenkins.getAuthentication2();
+        ForkJoinPool pool = Pool.POOL;
+        int chunks = Math.min(size, pool.getParallelism() * CHUNKS_PER_THREAD);
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) size * c / chunks), to = (int) ((long) size * (c + 1) / chunks);
+            tasks.add(() -> {
+                Thread t = Thread.currentThread();
+                ClassLoader old = t.getContextClassLoader();
+                t.setContextClassLoader(loader);
+                try (ACLContext context = ACL.as2(auth)) {
+                    for (int i = from; i < to && i < firstFailure.get(); i++) {
+                        try {
+                            results[i] = f.apply(i, elements.get(i));
+                        } catch (Exception x) {
+                            failures[i] = x;
+                            firstFailure.accumulateAndGet(i, Math::min);
+                            break;
+                        }
+                    }
+                } finally {
+                    t.setContextClassLoader(old);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException x) {
+                // the function's own exceptions are recorded above, so this is an Error
+                Throwable cause = x.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw x;
+            }
+        }
+        int first = firstFailure.get();
+        if (first < size) {
+            throw failures[first];
+        }
+        return results;
+    }
+}
@@ -0,0 +1,60 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of property paths such as {@code scm.userRemoteConfigs[*].url} as a tree of property names,
+ * used by {@link DescribableModel#uninstantiate2(Object, Collection)}.
+ */
+final class PropertyPaths {
+
+    private final Map<String,PropertyPaths> children = new TreeMap<>();
+
+    /**
+     * Whether some path ends here, so that the whole subtree is selected.
+     */
+    private boolean all;
+
+    private PropertyPaths() {}
+
+    /**
+     * @param paths property names separated by {@code .}, each optionally followed by {@code [*]}
+     * @throws IllegalArgumentException if a path has an empty segment, or selects particular elements like {@code [0]}
+     */
+    static PropertyPaths parse(Collection<String> paths) throws IllegalArgumentException {
+        PropertyPaths root = new PropertyPaths();
+        for (String path : paths) {
+            PropertyPaths node = root;
+            for (String name : path.split("\\.", -1)) {
+                if (name.endsWith("[*]")) {
+                    // lists and arrays are looked through anyway
+                    name = name.substring(0, name.length() - 3);
+                }
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Malformed property path: " + path);
+                }
+                if (name.indexOf('[') != -1 || name.indexOf(']') != -1) {
+                    // rather than silently selecting nothing
+                    throw new IllegalArgumentException("Only [*] may follow a property name in " + path);
+                }
+                node = node.children.computeIfAbsent(name, k -> new PropertyPaths());
+            }
+            node.all = true;
+        }
+        return root;
+    }
+
+    boolean isAll() {
+        return all;
+    }
+
+    /**
+     * Paths below this one, by the name of the property they start with.
+     */
+    Map<String,PropertyPaths> getChildren() {
+        return Collections.unmodifiableMap(children);
+    }
+}
@@ -0,0 +1,69 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.util.SystemProperties;
+
+/**
+ * Keeps a warning which recurs for the same key, such as the same type, from flooding the log.
+ * The first occurrence is reported in full, and later ones only once per {@link #INTERVAL},
+ * together with how many occurrences were left out in between;
+ * an occurrence which is left out costs a map lookup and an atomic increment.
+ */
+final class RepeatedWarnings {
+
+    /**
+     * Minimum time in milliseconds between reports of a warning with the same key.
+     */
+    @SuppressFBWarnings("MS_SHOULD_BE_FINAL")
+    static long INTERVAL = SystemProperties.getLong(RepeatedWarnings.class.getName() + ".INTERVAL", TimeUnit.MINUTES.toMillis(10));
+
+    /**
+     * Beyond this many keys, keys are forgotten rather than the map growing without bound.
+     */
+    static final int MAX_KEYS = 1000;
+
+    private static final class Occurrences {
+        /**
+         * {@link System#nanoTime} after which the next occurrence is reported.
+         */
+        final AtomicLong nextReport;
+        final AtomicLong suppressed = new AtomicLong();
+
+        Occurrences(long now) {
+            nextReport = new AtomicLong(now);
+        }
+    }
+
+    private final ConcurrentMap<String,Occurrences> occurrences = new ConcurrentHashMap<>();
+
+    /**
+     * Counts an occurrence of a warning.
+     *
+     * @return -1 if this occurrence should not be reported,
+     *      otherwise how many occurrences were not reported since the last one which was
+     */
+    long occurred(String key) {
+        long now = System.nanoTime();
+        if (occurrences.size() > MAX_KEYS) {
+            occurrences.clear();
+        }
+        Occurrences o = occurrences.computeIfAbsent(key, k -> new Occurrences(now));
+        long next = o.nextReport.get();
+        if (now - next < 0 || !o.nextReport.compareAndSet(next, now + TimeUnit.MILLISECONDS.toNanos(INTERVAL))) {
+            o.suppressed.incrementAndGet();
+            return -1;
+        }
+        return o.suppressed.getAndSet(0);
+    }
+
+    /**
+     * Describes the result of {@link #occurred} for appending to a message.
+     */
+    static String suffix(long suppressed) {
+        return suppressed > 0 ? " (" + suppressed + " similar warnings were suppressed since the last one)" : "";
+    }
+}
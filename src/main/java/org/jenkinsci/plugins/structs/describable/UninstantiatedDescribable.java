@@ -2,17 +2,40 @@ package org.jenkinsci.plugins.structs.describable;
 
 import hudson.model.Describable;
 import hudson.model.TaskListener;
+import com.google.common.cache.CacheBuilder;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.util.Secret;
+import jenkins.security.HMACConfidentialKey;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.jenkinsci.Symbol;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
 import edu.umd.cs.findbugs.annotations.CheckForNull;
 
 /**
@@ -21,10 +44,35 @@ import edu.umd.cs.findbugs.annotations.CheckForNull;
  * @author Kohsuke Kawaguchi
  */
 public class UninstantiatedDescribable implements Serializable {
+    /**
+     * Whether structs nested in a {@linkplain #freeze frozen} tree, or read from a stream,
+     * are replaced by a canonical instance with the same content, so that identical subtrees share memory.
+     */
+    @SuppressFBWarnings("MS_SHOULD_BE_FINAL")
+    @Restricted(NoExternalUse.class)
+    public static boolean INTERNING = SystemProperties.getBoolean(UninstantiatedDescribable.class.getName() + ".INTERNING");
+
+    /**
+     * Canonical frozen structs by model and {@link #fingerprint}, held only as long as they are used elsewhere.
+     */
+    private static final ConcurrentMap<String,UninstantiatedDescribable> interned = CacheBuilder.newBuilder().weakValues().<String,UninstantiatedDescribable>build().asMap();
+
     private String symbol;
     private String klass;
-    private final Map<String,?> arguments;
+    private Map<String,?> arguments;
     private DescribableModel model;
+    /**
+     * Set on copies made by {@link #freeze}.
+     */
+    private boolean frozen;
+    /**
+     * Cached {@link #hashCode()} of a frozen object, or 0 if not yet computed.
+     */
+    private transient int hashCode;
+    /**
+     * Cached {@link #fingerprint()} of a frozen object.
+     */
+    private transient byte[] fingerprint;
 
     public UninstantiatedDescribable(String symbol, String klass, Map<String, ?> arguments) {
         this.symbol = symbol;
@@ -59,6 +107,7 @@ public class UninstantiatedDescribable implements Serializable {
     }
 
     public void setSymbol(String symbol) {
+        checkNotFrozen();
         this.symbol = symbol;
     }
 
@@ -74,6 +123,7 @@ public class UninstantiatedDescribable implements Serializable {
     }
 
     public void setKlass(String klass) {
+        checkNotFrozen();
         this.klass = klass;
     }
 
@@ -88,9 +138,224 @@ public class UninstantiatedDescribable implements Serializable {
     }
 
     public void setModel(DescribableModel model) {
+        checkNotFrozen();
         this.model = model;
     }
 
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException(this + " is frozen");
+        }
+    }
+
+    /**
+     * Makes an immutable copy of this struct.
+     * Nested structs are frozen as well, lists become unmodifiable,
+     * and the setters of the copy throw {@link IllegalStateException}.
+     * In exchange its {@link #hashCode} is computed just once,
+     * and {@link #equals} can tell two frozen structs apart by their hash codes without comparing their arguments.
+     * {@link #withArguments} may be used to derive a modifiable struct.
+     *
+     * <p>
+     * Structs produced by {@link DescribableModel#uninstantiate2(Object)} are modifiable, so callers ask for this
+     * when they mean to keep or compare a tree rather than edit it.
+     * If {@link #INTERNING} is enabled, nested structs of the copy are replaced by canonical instances.
+     *
+     * @return this object if already frozen, otherwise a frozen copy
+     */
+    public UninstantiatedDescribable freeze() {
+        if (frozen) {
+            return this;
+        }
+        Map<String,Object> args = new LinkedHashMap<>();
+        for (Entry<String,?> e : arguments.entrySet()) {
+            args.put(e.getKey(), freeze(e.getValue()));
+        }
+        Map<String,Object> frozenArgs = null;
+        if (arguments instanceof ModelArguments && model != null) {
+            frozenArgs = ModelArguments.of(model, args);
+        }
+        if (frozenArgs == null || frozenArgs == args) {
+            frozenArgs = Collections.unmodifiableMap(args);
+        }
+        UninstantiatedDescribable copy = new UninstantiatedDescribable(symbol, klass, frozenArgs);
+        copy.model = model;
+        copy.frozen = true;
+        return copy;
+    }
+
+    private static Object freeze(Object v) {
+        // see DescribableParameter.uncoerce for possible variety
+        if (v instanceof UninstantiatedDescribable) {
+            return ((UninstantiatedDescribable) v).freeze().intern();
+        } else if (v instanceof List) {
+            List<Object> l = new ArrayList<>(((List) v).size());
+            for (Object o : (List<?>) v) {
+                l.add(freeze(o));
+            }
+            return Collections.unmodifiableList(l);
+        } else {
+            return v;
+        }
+    }
+
+    /**
+     * Whether this is the result of {@link #freeze}.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Computes a hash of the content of this struct and everything nested in it.
+     * Unlike {@link #hashCode} it is the same in every JVM and collisions are not a practical concern,
+     * so it may serve as a cache key.
+     *
+     * <p>
+     * Arguments are hashed in name order, and nested structs contribute their own fingerprint.
+     * Frozen structs remember it, so after replacing an argument deep in a tree of {@linkplain #freeze frozen} structs
+     * only the structs on the path up to the root need to be hashed again.
+     * {@link Secret}s are hashed with a key confidential to this Jenkins instance,
+     * so that the fingerprint changes with them but does not reveal them.
+     * Only values which can be encoded exactly are hashed: strings, primitive wrappers, enums, secrets, lists,
+     * and maps with string keys, as produced by {@link DescribableModel#uninstantiate2(Object)} for data-bound properties.
+     * Structs holding anything else, such as an object left as is because it is not data-bound,
+     * cannot be told apart reliably from their other properties, so they have no fingerprint.
+     *
+     * @return a SHA-256 hash in lowercase hexadecimal
+     * @throws UnsupportedOperationException if this struct or one nested in it holds a value which cannot be fingerprinted
+     */
+    public String fingerprint() throws UnsupportedOperationException {
+        return HexFormat.of().formatHex(digest());
+    }
+
+    private byte[] digest() {
+        byte[] d = fingerprint;
+        if (d != null) {
+            return d;
+        }
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException x) {
+            throw new AssertionError(x);
+        }
+        update(md, symbol);
+        update(md, klass);
+        updateValue(md, arguments);
+        d = md.digest();
+        if (frozen) {
+            fingerprint = d;
+        }
+        return d;
+    }
+
+    /**
+     * Looks up the canonical instance of a frozen struct, if {@link #INTERNING} is enabled.
+     *
+     * @return an equal struct with the same model, possibly this one
+     */
+    /*package*/ UninstantiatedDescribable intern() {
+        if (!INTERNING || !frozen) {
+            return this;
+        }
+        String key;
+        try {
+            key = (model != null ? model.getType().getName() : "") + ':' + fingerprint();
+        } catch (RuntimeException x) {
+            // a value which cannot be fingerprinted, or a Secret outside Jenkins
+            return this;
+        }
+        UninstantiatedDescribable canonical = interned.putIfAbsent(key, this);
+        // the fingerprint stands for the content, but only an equal struct may stand in for this one
+        return canonical != null && canonical.equals(this) ? canonical : this;
+    }
+
+    private static void updateValue(MessageDigest md, Object v) {
+        // each kind of value is tagged and encoded exactly, so that values which are not equal cannot encode to the same bytes
+        if (v == null) {
+            md.update((byte) 'N');
+        } else if (v instanceof String) {
+            md.update((byte) 'S');
+            update(md, (String) v);
+        } else if (v instanceof UninstantiatedDescribable) {
+            md.update((byte) 'D');
+            md.update(((UninstantiatedDescribable) v).digest());
+        } else if (v instanceof List) {
+            md.update((byte) 'L');
+            updateInt(md, ((List) v).size());
+            for (Object o : (List<?>) v) {
+                updateValue(md, o);
+            }
+        } else if (v instanceof Map) {
+            md.update((byte) 'M');
+            Map<?,?> m = (Map<?,?>) v;
+            if (!(m instanceof ModelArguments)) {
+                Map<String,Object> sorted = new TreeMap<>();
+                for (Entry<?,?> e : m.entrySet()) {
+                    if (!(e.getKey() instanceof String)) {
+                        throw new UnsupportedOperationException("cannot fingerprint a map with a key of " + (e.getKey() == null ? null : e.getKey().getClass()));
+                    }
+                    sorted.put((String) e.getKey(), e.getValue());
+                }
+                m = sorted;
+            }
+            updateInt(md, m.size());
+            for (Entry<?,?> e : m.entrySet()) {
+                update(md, (String) e.getKey());
+                updateValue(md, e.getValue());
+            }
+        } else if (v instanceof Secret) {
+            md.update((byte) 'X');
+            md.update(SecretFingerprint.KEY.mac(((Secret) v).getPlainText().getBytes(StandardCharsets.UTF_8)));
+        } else if (v instanceof Enum) {
+            md.update((byte) 'E');
+            update(md, ((Enum<?>) v).getDeclaringClass().getName());
+            update(md, ((Enum<?>) v).name());
+        } else if (v instanceof Boolean || v instanceof Character || v instanceof Byte || v instanceof Short || v instanceof Integer || v instanceof Long) {
+            // Integer 1 and Long 1 are not equal, so do not hash them alike; their toString is exact
+            md.update((byte) 'P');
+            update(md, v.getClass().getName());
+            update(md, v.toString());
+        } else if (v instanceof Float) {
+            // as compared by Float.equals
+            md.update((byte) 'F');
+            updateInt(md, Float.floatToIntBits((Float) v));
+        } else if (v instanceof Double) {
+            md.update((byte) 'G');
+            long bits = Double.doubleToLongBits((Double) v);
+            updateInt(md, (int) (bits >>> 32));
+            updateInt(md, (int) bits);
+        } else {
+            // toString need not tell unequal values apart
+            throw new UnsupportedOperationException("cannot fingerprint " + v.getClass());
+        }
+    }
+
+    private static void update(MessageDigest md, @CheckForNull String s) {
+        if (s == null) {
+            updateInt(md, -1);
+        } else {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            updateInt(md, b.length);
+            md.update(b);
+        }
+    }
+
+    private static void updateInt(MessageDigest md, int i) {
+        md.update((byte) (i >>> 24));
+        md.update((byte) (i >>> 16));
+        md.update((byte) (i >>> 8));
+        md.update((byte) i);
+    }
+
+    /**
+     * Holds the key separately so that it is only created once a {@link Secret} is fingerprinted.
+     */
+    private static final class SecretFingerprint {
+        static final HMACConfidentialKey KEY = new HMACConfidentialKey(UninstantiatedDescribable.class, "fingerprint");
+    }
+
     /**
      * All the nested arguments to this object.
      */
@@ -117,36 +382,50 @@ public class UninstantiatedDescribable implements Serializable {
     /**
      * For legacy use, we need to blow up this into a map form.
      * This requires recursively blowing up any nested {@link UninstantiatedDescribable}s.
+     *
+     * <p>
+     * The result is a read-only view sorted by key, in which nested structs, including those in lists,
+     * are blown up only as they are accessed, so reading a few keys does not copy the whole tree.
+     * Copy it to modify it.
      */
     public Map<String,Object> toMap() {
-        Map<String,Object> r = toShallowMap();
-        for (Entry<String,?> e : arguments.entrySet()) {
-            Object v = e.getValue();
-            // see DescribableParameter.uncoerce for possible variety
-            v = toMap(v);
-            if (v instanceof List) {
-                List l = new ArrayList(((List) v).size());
-                for (Object o : (List) v) {
-                    l.add(toMap(o));
-                }
-                v = l;
-            }
-            r.put(e.getKey(),v);
-        }
-        return r;
+        return new MapView(this, true);
     }
 
     /**
      * Converts this {@link UninstantiatedDescribable} to a literal map expression without recursively doing so for children.
+     *
+     * <p>
+     * The result is a read-only view sorted by key.
      */
     public Map<String,Object> toShallowMap() {
-        Map<String,Object> r = new TreeMap<String, Object>(arguments);
-        if (klass !=null)
+        // there's no use writing both $class and $symbol. $symbol is little more readable, but given that this is already
+        // a fallback behaviour, let's not complicate things by adding yet another way to instantiate a Describable
+        return new MapView(this, false);
+    }
+
+    /**
+     * A modifiable deep copy in the form {@link #toMap} used to return,
+     * for the deprecated {@link DescribableModel#uninstantiate(Object)}, whose callers may well modify it.
+     */
+    /*package*/ Map<String,Object> toMutableMap() {
+        Map<String,Object> r = new TreeMap<>(arguments);
+        if (klass != null) {
             r.put(DescribableModel.CLAZZ, klass);
-// there's no use writing both $class and $symbol. $symbol is little more readable, but given that this is already
-// a fallback behaviour, let's not complicate things by adding yet another way to instantiate a Describable
-//        if (symbol!=null)
-//            r.put(DescribableModel.SYMBOL,symbol);
+        }
+        for (Entry<String,?> e : arguments.entrySet()) {
+            Object v = e.getValue();
+            if (v instanceof UninstantiatedDescribable) {
+                v = ((UninstantiatedDescribable) v).toMutableMap();
+            } else if (v instanceof List) {
+                List<Object> l = new ArrayList<>(((List<?>) v).size());
+                for (Object o : (List<?>) v) {
+                    l.add(o instanceof UninstantiatedDescribable ? ((UninstantiatedDescribable) o).toMutableMap() : o);
+                }
+                v = l;
+            }
+            r.put(e.getKey(), v);
+        }
         return r;
     }
 
@@ -159,6 +438,165 @@ public class UninstantiatedDescribable implements Serializable {
         }
     }
 
+    /**
+     * {@link #arguments} plus {@link #klass} as {@value DescribableModel#CLAZZ}.
+     * Serialized as a plain sorted map, like the copy the view stands in for.
+     */
+    private static final class MapView extends AbstractMap<String,Object> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final transient UninstantiatedDescribable ud;
+        private final boolean deep;
+        /**
+         * Keys in iteration order, once computed for a frozen struct; those of a modifiable one are read afresh.
+         */
+        private transient String[] keys;
+
+        MapView(UninstantiatedDescribable ud, boolean deep) {
+            this.ud = ud;
+            this.deep = deep;
+        }
+
+        private Object expand(Object v) {
+            if (!deep) {
+                return v;
+            }
+            // see DescribableParameter.uncoerce for possible variety
+            if (v instanceof List) {
+                return new ListView((List<?>) v);
+            }
+            return toMap(v);
+        }
+
+        private Object writeReplace() {
+            return new TreeMap<>(this);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return ud.klass != null && DescribableModel.CLAZZ.equals(key) || ud.arguments.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (ud.klass != null && DescribableModel.CLAZZ.equals(key)) {
+                return ud.klass;
+            }
+            return expand(ud.arguments.get(key));
+        }
+
+        @Override
+        public int size() {
+            return keys().length;
+        }
+
+        private String[] keys() {
+            if (keys == null || !ud.frozen) {
+                int extra = ud.klass != null && !ud.arguments.containsKey(DescribableModel.CLAZZ) ? 1 : 0;
+                String[] k = ud.arguments.keySet().toArray(new String[ud.arguments.size() + extra]);
+                if (extra == 1) {
+                    k[k.length - 1] = DescribableModel.CLAZZ;
+                }
+                boolean sorted = ud.arguments instanceof ModelArguments
+                        || ud.arguments instanceof SortedMap && ((SortedMap<?,?>) ud.arguments).comparator() == null;
+                if (!sorted || extra == 1) {
+                    // if only $class is out of place, merge sort takes linear time
+                    Arrays.sort(k);
+                }
+                keys = k;
+            }
+            return keys;
+        }
+
+        @Override
+        public Set<Entry<String,Object>> entrySet() {
+            return new AbstractSet<Entry<String,Object>>() {
+                @Override
+                public int size() {
+                    return keys().length;
+                }
+
+                @Override
+                public Iterator<Entry<String,Object>> iterator() {
+                    String[] k = keys();
+                    return new Iterator<Entry<String,Object>>() {
+                        int i;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < k.length;
+                        }
+
+                        @Override
+                        public Entry<String,Object> next() {
+                            if (i >= k.length) {
+                                throw new NoSuchElementException();
+                            }
+                            String key = k[i++];
+                            return new SimpleImmutableEntry<>(key, get(key));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * A list value as seen through a deep {@link MapView}.
+     */
+    private static final class ListView extends AbstractList<Object> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<?> list;
+
+        ListView(List<?> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Object get(int index) {
+            return toMap(list.get(index));
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        private Object writeReplace() {
+            return new ArrayList<>(this);
+        }
+    }
+
+    /**
+     * Reports this object and everything nested in it to a visitor.
+     *
+     * @see DescribableModel#traverse(Object, DescribableVisitor)
+     */
+    public void accept(DescribableVisitor visitor) throws IOException {
+        visitor.beginObject(symbol, klass, model);
+        for (Entry<String,?> e : arguments.entrySet()) {
+            visitor.property(e.getKey());
+            accept(e.getValue(), visitor);
+        }
+        visitor.endObject();
+    }
+
+    /*package*/ static void accept(Object v, DescribableVisitor visitor) throws IOException {
+        // see DescribableParameter.uncoerce for possible variety
+        if (v instanceof UninstantiatedDescribable) {
+            ((UninstantiatedDescribable) v).accept(visitor);
+        } else if (v instanceof List) {
+            visitor.beginList(((List) v).size());
+            for (Object o : (List) v) {
+                accept(o, visitor);
+            }
+            visitor.endList();
+        } else {
+            visitor.scalar(v);
+        }
+    }
+
     /**
      * @deprecated instead use {@link #instantiate(TaskListener)}
      */
@@ -222,6 +660,8 @@ public class UninstantiatedDescribable implements Serializable {
 
         UninstantiatedDescribable that = (UninstantiatedDescribable) o;
 
+        if (frozen && that.frozen && hashCode() != that.hashCode()) return false;
+
         if (symbol != null ? !symbol.equals(that.symbol) : that.symbol != null) return false;
         if (klass != null ? !klass.equals(that.klass) : that.klass != null) return false;
         return arguments.equals(that.arguments);
@@ -230,9 +670,15 @@ public class UninstantiatedDescribable implements Serializable {
 
     @Override
     public int hashCode() {
+        if (frozen && hashCode != 0) {
+            return hashCode;
+        }
         int result = symbol != null ? symbol.hashCode() : 0;
         result = 31 * result + (klass != null ? klass.hashCode() : 0);
         result = 31 * result + arguments.hashCode();
+        if (frozen) {
+            hashCode = result;
+        }
         return result;
     }
 
@@ -262,6 +708,61 @@ public class UninstantiatedDescribable implements Serializable {
         return b.toString();
    }
 
+    /**
+     * Rather than the {@link #arguments} map with all its internals, writes their count followed by names and values.
+     * Strings are interned so that repeated names, symbols and classes are written once per stream as back references.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("symbol", intern(symbol));
+        fields.put("klass", intern(klass));
+        fields.put("arguments", null);
+        fields.put("model", model);
+        fields.put("frozen", frozen);
+        out.writeFields();
+        out.writeBoolean(arguments instanceof ModelArguments);
+        out.writeInt(arguments.size());
+        for (Entry<String,?> e : arguments.entrySet()) {
+            out.writeObject(intern(e.getKey()));
+            out.writeObject(e.getValue());
+        }
+    }
+
+    /**
+     * Reads what {@link #writeObject} wrote, or the default serial form used before,
+     * interning strings so that structs restored from a stream share them.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        symbol = intern((String) fields.get("symbol", null));
+        klass = intern((String) fields.get("klass", null));
+        model = (DescribableModel) fields.get("model", null);
+        frozen = fields.get("frozen", false);
+        @SuppressWarnings("unchecked")
+        Map<String,?> args = (Map<String,?>) fields.get("arguments", null);
+        if (args == null) {
+            boolean compact = in.readBoolean();
+            int size = in.readInt();
+            Map<String,Object> m = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                m.put(intern((String) in.readObject()), in.readObject());
+            }
+            args = compact && model != null ? ModelArguments.of(model, m) : m;
+        }
+        if (frozen && !(args instanceof ModelArguments)) {
+            args = Collections.unmodifiableMap(args);
+        }
+        arguments = args;
+    }
+
+    private Object readResolve() {
+        return intern();
+    }
+
+    private static String intern(@CheckForNull String s) {
+        return s == null ? null : s.intern();
+    }
+
     private static final long serialVersionUID = 1L;
 
     /**
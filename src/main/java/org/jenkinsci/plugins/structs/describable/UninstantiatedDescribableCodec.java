@@ -0,0 +1,445 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import hudson.model.Describable;
+import hudson.util.Secret;
+import jenkins.model.Jenkins;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.NoStaplerConstructorException;
+
+/**
+ * Binary form of {@link UninstantiatedDescribable} trees, for caching them or passing them between processes
+ * without the overhead of Java serialization.
+ *
+ * <p>
+ * The format starts with a magic number and {@linkplain #VERSION version},
+ * followed by a table of all strings used (names, symbols, classes and string values), each stored once,
+ * and then the root struct.
+ * Counts, lengths and indices into the string table are variable-length integers;
+ * other numbers are big-endian, whatever the {@linkplain ByteBuffer#order() order} of the buffers involved.
+ * Argument values may be {@code null}, strings, primitive wrappers, enums, {@link Secret}s (in their encrypted form,
+ * so that they can only be decoded where they were encoded, or elsewhere with the same secret key),
+ * lists, maps with string keys, and nested structs,
+ * which covers everything {@link DescribableModel#uninstantiate2(Object)} produces other than objects it leaves raw.
+ * The {@link UninstantiatedDescribable#getModel() model} is recorded by class name.
+ *
+ * <p>
+ * {@link #decode} reads straight from the buffer it is given, so it works as well on a memory-mapped file.
+ */
+public final class UninstantiatedDescribableCodec {
+
+    /**
+     * Version of the format written by {@link #encode}; {@link #decode} rejects any other.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x5544; // "UD"
+
+    private static final byte NULL = 0, STRING = 1, TRUE = 2, FALSE = 3, INT = 4, LONG = 5, SHORT = 6, BYTE = 7,
+            CHAR = 8, FLOAT = 9, DOUBLE = 10, ENUM = 11, SECRET = 12, LIST = 13, MAP = 14, STRUCT = 15;
+
+    private static final int FROZEN = 1, COMPACT = 2;
+
+    /**
+     * Maximum nesting of structs, lists and maps accepted by {@link #decode}, well within what the stack can take.
+     */
+    private static final int MAX_DEPTH = 512;
+
+    private UninstantiatedDescribableCodec() {}
+
+    /**
+     * Writes a struct and everything nested in it.
+     *
+     * @return a buffer positioned at the start of the encoded form, whose limit is its end
+     * @throws IllegalArgumentException if some argument value is of a type the format does not cover
+     */
+    public static ByteBuffer encode(UninstantiatedDescribable ud) throws IllegalArgumentException {
+        Encoder body = new Encoder();
+        body.writeStruct(ud);
+        Encoder header = new Encoder();
+        header.writeShort(MAGIC);
+        header.writeByte(VERSION);
+        header.writeVarint(body.strings.size());
+        for (String s : body.strings.keySet()) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            header.writeVarint(b.length);
+            header.write(b, 0, b.length);
+        }
+        header.write(body.buf, 0, body.size);
+        return ByteBuffer.wrap(header.buf, 0, header.size).slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads a struct written by {@link #encode}, starting at the position of the buffer,
+     * which is left after the end of the struct.
+     * Models are looked up by class name, and left unset if the class is no longer present.
+     * Classes named by the buffer are not initialized unless they are an enum or a data-bound class, as they should be.
+     *
+     * @throws IOException if the buffer does not hold a struct in this format, nests more deeply than any real configuration,
+     *      names a class which is not what it should be, or holds a secret which this controller cannot decrypt
+     */
+    public static UninstantiatedDescribable decode(ByteBuffer buffer) throws IOException {
+        // the order of the caller's buffer is left alone
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        try {
+            if (Short.toUnsignedInt(in.getShort()) != MAGIC) {
+                throw new IOException("Not an encoded UninstantiatedDescribable");
+            }
+            int version = in.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of encoded UninstantiatedDescribable");
+            }
+            int count = readVarint(in);
+            // every string takes at least the byte of its length
+            if (count > in.remaining()) {
+                throw new IOException("Malformed encoded UninstantiatedDescribable");
+            }
+            String[] strings = new String[count];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarint(in);
+                // decodes from the buffer itself, without copying into a byte[] first
+                strings[i] = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+                in.position(in.position() + length);
+            }
+            UninstantiatedDescribable ud = new Decoder(in, strings).readStruct(0);
+            buffer.position(in.position());
+            return ud;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException x) {
+            throw new IOException("Malformed encoded UninstantiatedDescribable", x);
+        }
+    }
+
+    private static final class Encoder {
+        byte[] buf = new byte[256];
+        int size;
+        /**
+         * String table, in the order of first use.
+         */
+        final Map<String,Integer> strings = new LinkedHashMap<>();
+
+        void writeStruct(UninstantiatedDescribable ud) {
+            DescribableModel<?> model = ud.getModel();
+            writeString(ud.getSymbol());
+            writeString(ud.getKlass());
+            writeString(model != null ? model.getType().getName() : null);
+            Map<String,?> arguments = ud.getArguments();
+            writeByte((ud.isFrozen() ? FROZEN : 0) | (arguments instanceof ModelArguments ? COMPACT : 0));
+            writeVarint(arguments.size());
+            for (Entry<String,?> e : arguments.entrySet()) {
+                writeString(e.getKey());
+                writeValue(e.getValue());
+            }
+        }
+
+        void writeValue(Object v) {
+            if (v == null) {
+                writeByte(NULL);
+            } else if (v instanceof String) {
+                writeByte(STRING);
+                writeString((String) v);
+            } else if (v instanceof Boolean) {
+                writeByte((Boolean) v ? TRUE : FALSE);
+            } else if (v instanceof Integer) {
+                writeByte(INT);
+                writeVarlong(zigzag((Integer) v));
+            } else if (v instanceof Long) {
+                writeByte(LONG);
+                writeVarlong(zigzag((Long) v));
+            } else if (v instanceof Short) {
+                writeByte(SHORT);
+                writeVarlong(zigzag((Short) v));
+            } else if (v instanceof Byte) {
+                writeByte(BYTE);
+                writeByte((Byte) v);
+            } else if (v instanceof Character) {
+                writeByte(CHAR);
+                writeVarint((Character) v);
+            } else if (v instanceof Float) {
+                writeByte(FLOAT);
+                writeFixed(Float.floatToIntBits((Float) v), 4);
+            } else if (v instanceof Double) {
+                writeByte(DOUBLE);
+                writeFixed(Double.doubleToLongBits((Double) v), 8);
+            } else if (v instanceof Enum) {
+                writeByte(ENUM);
+                writeString(((Enum<?>) v).getDeclaringClass().getName());
+                writeString(((Enum<?>) v).name());
+            } else if (v instanceof Secret) {
+                writeByte(SECRET);
+                writeString(((Secret) v).getEncryptedValue());
+            } else if (v instanceof List) {
+                writeByte(LIST);
+                writeVarint(((List<?>) v).size());
+                for (Object o : (List<?>) v) {
+                    writeValue(o);
+                }
+            } else if (v instanceof Map) {
+                writeByte(MAP);
+                writeVarint(((Map<?,?>) v).size());
+                for (Entry<?,?> e : ((Map<?,?>) v).entrySet()) {
+                    if (!(e.getKey() instanceof String)) {
+                        throw new IllegalArgumentException("Cannot encode map key " + e.getKey());
+                    }
+                    writeString((String) e.getKey());
+                    writeValue(e.getValue());
+                }
+            } else if (v instanceof UninstantiatedDescribable) {
+                writeByte(STRUCT);
+                writeStruct((UninstantiatedDescribable) v);
+            } else {
+                throw new IllegalArgumentException("Cannot encode " + v.getClass().getName());
+            }
+        }
+
+        /**
+         * Writes 0 for null, otherwise one more than the index in {@link #strings}.
+         */
+        void writeString(@CheckForNull String s) {
+            if (s == null) {
+                writeVarint(0);
+            } else {
+                Integer i = strings.get(s);
+                if (i == null) {
+                    i = strings.size();
+                    strings.put(s, i);
+                }
+                writeVarint(i + 1);
+            }
+        }
+
+        void writeVarint(int i) {
+            writeVarlong(Integer.toUnsignedLong(i));
+        }
+
+        void writeVarlong(long l) {
+            while ((l & ~0x7FL) != 0) {
+                writeByte((int) ((l & 0x7F) | 0x80));
+                l >>>= 7;
+            }
+            writeByte((int) l);
+        }
+
+        void writeFixed(long l, int bytes) {
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+                writeByte((int) (l >>> shift));
+            }
+        }
+
+        void writeShort(int s) {
+            writeFixed(s, 2);
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buf[size++] = (byte) b;
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+        }
+
+        private void ensureCapacity(int more) {
+            if (size + more > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + more));
+            }
+        }
+
+        private static long zigzag(long l) {
+            return (l << 1) ^ (l >> 63);
+        }
+    }
+
+    private static final class Decoder {
+        private final ByteBuffer in;
+        private final String[] strings;
+
+        Decoder(ByteBuffer in, String[] strings) {
+            this.in = in;
+            this.strings = strings;
+        }
+
+        UninstantiatedDescribable readStruct(int depth) throws IOException {
+            checkDepth(depth);
+            String symbol = readString();
+            String klass = readString();
+            String modelClass = readString();
+            int flags = in.get();
+            int size = readVarint(in);
+            Map<String,Object> arguments = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                arguments.put(readString(), readValue(depth + 1));
+            }
+            DescribableModel<?> model = modelClass != null ? model(modelClass) : null;
+            Map<String,Object> args = (flags & COMPACT) != 0 && model != null ? ModelArguments.of(model, arguments) : arguments;
+            UninstantiatedDescribable ud = new UninstantiatedDescribable(symbol, klass, args);
+            ud.setModel(model);
+            return (flags & FROZEN) != 0 ? ud.freeze() : ud;
+        }
+
+        Object readValue(int depth) throws IOException {
+            checkDepth(depth);
+            byte tag = in.get();
+            switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) unzigzag(readVarlong(in));
+            case LONG:
+                return unzigzag(readVarlong(in));
+            case SHORT:
+                return (short) unzigzag(readVarlong(in));
+            case BYTE:
+                return in.get();
+            case CHAR:
+                return (char) readVarint(in);
+            case FLOAT:
+                return in.getFloat();
+            case DOUBLE:
+                return in.getDouble();
+            case ENUM:
+                return readEnum(readString(), readString());
+            case SECRET:
+                return readSecret(readString());
+            case LIST: {
+                int size = readVarint(in);
+                List<Object> list = new ArrayList<>(Math.min(size, in.remaining()));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(depth + 1));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = readVarint(in);
+                Map<String,Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readString(), readValue(depth + 1));
+                }
+                return map;
+            }
+            case STRUCT:
+                return readStruct(depth + 1);
+            default:
+                throw new IOException("Unknown tag " + tag + " in encoded UninstantiatedDescribable");
+            }
+        }
+
+        private static void checkDepth(int depth) throws IOException {
+            if (depth > MAX_DEPTH) {
+                throw new IOException("Encoded UninstantiatedDescribable nested more than " + MAX_DEPTH + " levels deep");
+            }
+        }
+
+        @CheckForNull String readString() {
+            int i = readVarint(in);
+            return i == 0 ? null : strings[i - 1];
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object readEnum(String type, String name) throws IOException {
+            Class<?> c;
+            try {
+                c = loadClass(type);
+            } catch (ClassNotFoundException x) {
+                throw new IOException("Cannot decode " + type + "." + name, x);
+            }
+            if (!c.isEnum()) {
+                throw new IOException("Cannot decode " + type + "." + name + " as it is not an enum");
+            }
+            try {
+                return Enum.valueOf((Class) c, name);
+            } catch (IllegalArgumentException x) {
+                throw new IOException("Cannot decode " + type + "." + name, x);
+            }
+        }
+
+        private static Secret readSecret(@CheckForNull String encrypted) throws IOException {
+            // unlike Secret.fromString, which would take anything it cannot decrypt for plain text
+            Secret secret = Secret.decrypt(encrypted);
+            if (secret == null) {
+                throw new IOException("Cannot decrypt a secret, which may have been encoded by another controller");
+            }
+            return secret;
+        }
+
+        private static @CheckForNull DescribableModel<?> model(String type) throws IOException {
+            Class<?> c;
+            try {
+                c = loadClass(type);
+            } catch (ClassNotFoundException x) {
+                return null;
+            }
+            // models are cached for good, so do not make one of just any class
+            if (!Describable.class.isAssignableFrom(c) && !hasDataBoundConstructor(c)) {
+                throw new IOException("Cannot use " + type + " as a model");
+            }
+            try {
+                return DescribableModel.of(c);
+            } catch (NoStaplerConstructorException x) {
+                throw new IOException("Cannot use " + type + " as a model", x);
+            }
+        }
+
+        private static boolean hasDataBoundConstructor(Class<?> c) {
+            for (Constructor<?> ctr : c.getConstructors()) {
+                if (ctr.isAnnotationPresent(DataBoundConstructor.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Class<?> loadClass(String name) throws ClassNotFoundException {
+            Jenkins j = Jenkins.getInstanceOrNull();
+            ClassLoader loader = j != null ? j.getPluginManager().uberClassLoader : Thread.currentThread().getContextClassLoader();
+            return Class.forName(name, false, loader);
+        }
+
+        private static long unzigzag(long l) {
+            return (l >>> 1) ^ -(l & 1);
+        }
+    }
+
+    /**
+     * Reads a count, length or index, none of which can exceed {@link Integer#MAX_VALUE}.
+     */
+    private static int readVarint(ByteBuffer in) {
+        long l = readVarlong(in);
+        if (l < 0 || l > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Malformed encoded UninstantiatedDescribable");
+        }
+        return (int) l;
+    }
+
+    private static long readVarlong(ByteBuffer in) {
+        long l = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            l |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return l;
+            }
+        }
+        throw new IllegalArgumentException("Malformed encoded UninstantiatedDescribable");
+    }
+}
@@ -0,0 +1,64 @@
+package jmh.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import jenkins.benchmark.jmh.JmhBenchmark;
+import org.jenkinsci.plugins.structs.describable.UninstantiatedDescribable;
+import org.jenkinsci.plugins.structs.describable.UninstantiatedDescribableCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares round trips of a moderately large struct tree through {@link UninstantiatedDescribableCodec}
+ * and through Java serialization.
+ */
+@JmhBenchmark
+public class CodecBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tree {
+        UninstantiatedDescribable ud;
+
+        @Setup
+        public void setup() {
+            List<Object> steps = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Map<String, Object> args = new TreeMap<>();
+                args.put("script", "echo step " + i);
+                args.put("returnStatus", i % 2 == 0);
+                args.put("timeout", i);
+                steps.add(new UninstantiatedDescribable("sh", null, args));
+            }
+            Map<String, Object> args = new TreeMap<>();
+            args.put("name", "build");
+            args.put("steps", steps);
+            ud = new UninstantiatedDescribable("stage", null, args).freeze();
+        }
+    }
+
+    @Benchmark
+    public UninstantiatedDescribable codec(Tree tree) throws Exception {
+        ByteBuffer encoded = UninstantiatedDescribableCodec.encode(tree.ud);
+        return UninstantiatedDescribableCodec.decode(encoded);
+    }
+
+    @Benchmark
+    public Object javaSerialization(Tree tree) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(tree.ud);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            return ois.readObject();
+        }
+    }
+}
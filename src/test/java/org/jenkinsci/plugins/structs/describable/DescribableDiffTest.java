@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.jenkinsci.plugins.structs.describable.DescribableModelTest.Base;
+import org.jenkinsci.plugins.structs.describable.DescribableModelTest.Impl1;
+import org.jenkinsci.plugins.structs.describable.DescribableModelTest.Impl2;
+import org.jenkinsci.plugins.structs.describable.DescribableModelTest.Impl4;
+import org.jenkinsci.plugins.structs.describable.DescribableModelTest.UsesBase;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class DescribableDiffTest {
+
+    @Test
+    void diff(JenkinsRule r) {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        UninstantiatedDescribable before = DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2})));
+        assertEquals(Collections.emptyList(), DescribableDiff.diff(before, DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2})))));
+        UninstantiatedDescribable after = DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("goodbye"), new Impl2(), new Impl1("more")})));
+        assertEquals("[base.bases[0].text changed, base.bases[1].flag removed, base.bases[2] added]", DescribableDiff.diff(before, after).toString());
+        assertEquals("[base changed]", DescribableDiff.diff(before, DescribableModel.uninstantiate2_(new UsesBase(impl2))).toString());
+    }
+
+    @Test
+    void frozen(JenkinsRule r) {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        UninstantiatedDescribable before = DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2}))).freeze();
+        assertEquals(Collections.emptyList(), DescribableDiff.diff(before, DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2}))).freeze()));
+        UninstantiatedDescribable after = DescribableModel.uninstantiate2_(new UsesBase(new Impl4(new Base[] {new Impl1("goodbye"), impl2}))).freeze();
+        assertEquals("[base.bases[0].text changed]", DescribableDiff.diff(before, after).toString());
+    }
+
+    @Test
+    void equalHashCodes(JenkinsRule r) {
+        UninstantiatedDescribable a = new UninstantiatedDescribable(Map.of("x", new Collides())).freeze();
+        UninstantiatedDescribable b = new UninstantiatedDescribable(Map.of("x", new Collides())).freeze();
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals("[x changed]", DescribableDiff.diff(a, b).toString());
+    }
+
+    @Test
+    void fingerprints(JenkinsRule r) {
+        UninstantiatedDescribable a = new UninstantiatedDescribable(Map.of("x", "same", "y", List.of(new UninstantiatedDescribable(Map.of("z", 1))))).freeze();
+        UninstantiatedDescribable b = new UninstantiatedDescribable(Map.of("x", "same", "y", List.of(new UninstantiatedDescribable(Map.of("z", 1))))).freeze();
+        assertEquals(a.fingerprint(), b.fingerprint());
+        assertEquals(Collections.emptyList(), DescribableDiff.diff(a, b));
+        // cannot be fingerprinted, so compared for equality instead
+        Object raw = new Collides();
+        a = new UninstantiatedDescribable(Map.of("x", raw)).freeze();
+        b = new UninstantiatedDescribable(Map.of("x", raw)).freeze();
+        assertThrows(UnsupportedOperationException.class, a::fingerprint);
+        assertEquals(Collections.emptyList(), DescribableDiff.diff(a, b));
+    }
+
+    private static final class Collides {
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "same";
+        }
+    }
+}
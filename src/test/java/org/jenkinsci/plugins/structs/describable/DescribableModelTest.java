@@ -53,16 +53,26 @@ import org.jvnet.hudson.test.LoggerRule;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.NoStaplerConstructorException;
 
+import java.io.IOException;
+import java.io.Serializable;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.SerializationUtils.roundtrip;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -114,6 +124,11 @@ class DescribableModelTest {
         i.setFlag(true);
         i.text = "more";
         assertEquals("{flag=true, text=more, value=stuff}", DescribableModel.uninstantiate_(i).toString());
+        // as before, callers may modify the result
+        Map<String,Object> m = DescribableModel.uninstantiate_(i);
+        m.put(CLAZZ, "I");
+        m.remove("flag");
+        assertEquals("{$class=I, text=more, value=stuff}", m.toString());
 
         Object net = new Internet();
         UninstantiatedDescribable ud = UninstantiatedDescribable.from(net);
@@ -122,6 +137,86 @@ class DescribableModelTest {
         assertInstanceOf(Internet.class, ud.instantiate(Tech.class));
     }
 
+    @Test
+    void inheritedSetters() {
+        // the scan of the abstract superclass is shared by both subclasses, and each model is the same when built again
+        for (int i = 0; i < 2; i++) {
+            modelCache.remove(WithInheritedSetters1.class.getName());
+            modelCache.remove(WithInheritedSetters2.class.getName());
+            schema(WithInheritedSetters1.class, "WithInheritedSetters1(text: String, count?: int, shared?: String)");
+            schema(WithInheritedSetters2.class, "WithInheritedSetters2(flag?: boolean, shared?: String)");
+        }
+        roundTrip(WithInheritedSetters1.class, map("text", "hello", "count", 2, "shared", "both"), "hello/2/both");
+        roundTrip(WithInheritedSetters2.class, map("flag", true, "shared", "both"), "true/both");
+    }
+
+    public abstract static class AbstractWithSetters {
+        private String shared;
+        public String getShared() {
+            return shared;
+        }
+        @DataBoundSetter public void setShared(String shared) {
+            this.shared = shared;
+        }
+    }
+
+    public static final class WithInheritedSetters1 extends AbstractWithSetters {
+        private final String text;
+        private int count;
+        @DataBoundConstructor public WithInheritedSetters1(String text) {
+            this.text = text;
+        }
+        public String getText() {
+            return text;
+        }
+        public int getCount() {
+            return count;
+        }
+        @DataBoundSetter public void setCount(int count) {
+            this.count = count;
+        }
+        @Override public String toString() {
+            return text + "/" + count + "/" + getShared();
+        }
+    }
+
+    public static final class WithInheritedSetters2 extends AbstractWithSetters {
+        private boolean flag;
+        @DataBoundConstructor public WithInheritedSetters2() {}
+        public boolean isFlag() {
+            return flag;
+        }
+        @DataBoundSetter public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+        @Override public String toString() {
+            return flag + "/" + getShared();
+        }
+    }
+
+    @Test
+    void noDataBoundConstructor() {
+        NoStaplerConstructorException first = assertThrows(NoStaplerConstructorException.class, () -> DescribableModel.of(NotDataBound.class));
+        NoStaplerConstructorException second = assertThrows(NoStaplerConstructorException.class, () -> DescribableModel.of(NotDataBound.class));
+        assertEquals(first.getClass(), second.getClass());
+        assertEquals(first.getMessage(), second.getMessage());
+        // each caller gets its own stack trace
+        assertNotSame(first, second);
+        assertFalse(modelCache.containsKey(NotDataBound.class.getName()));
+    }
+
+    @Test
+    void constructorParameterNamesLookedUpOnce() {
+        for (int i = 0; i < 2; i++) {
+            modelCache.remove(C.class.getName());
+            schema(C.class, "C(text: String, flag: boolean, shorty?: short, toBeRemoved?(deprecated): String)");
+        }
+    }
+
+    public static final class NotDataBound {
+        public NotDataBound(String text) {}
+    }
+
     @Test
     void mismatchedTypes() {
         IllegalArgumentException x = assertThrows(IllegalArgumentException.class,
@@ -232,6 +327,456 @@ class DescribableModelTest {
         schema(UsesSomeImplsBroken.class, "UsesSomeImplsBroken(delegate: SomeImplsBroken{FineImpl()})");
     }
 
+    @Test
+    void traverse() throws Exception {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        UsesBase o = new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2, new Impl2()}));
+        StringBuilder streamed = new StringBuilder();
+        DescribableModel.of(UsesBase.class).traverse(o, new Printer(streamed));
+        assertEquals("(base=$Impl4(bases=[$Impl1(text=hello),$Impl2(flag=true),$Impl2()]))", streamed.toString());
+        StringBuilder built = new StringBuilder();
+        DescribableModel.uninstantiate2_(o).accept(new Printer(built));
+        assertEquals(built.toString(), streamed.toString());
+        // a list held by a property not declared as a collection is left raw, but still reported as a list
+        HoldsObject holder = new HoldsObject();
+        holder.setPayload(new ArrayList<>(List.of("a", new Impl1("b"))));
+        streamed = new StringBuilder();
+        traverse(holder, new Printer(streamed));
+        assertEquals("(payload=[a,Impl1[b]])", streamed.toString());
+        built = new StringBuilder();
+        DescribableModel.uninstantiate2_(holder).accept(new Printer(built));
+        assertEquals(built.toString(), streamed.toString());
+    }
+
+    @Test
+    void defaultsElidedAlike() throws Exception {
+        C c = new C("hello", true);
+        c.setToBeRemoved("old");
+        I i = new I("value");
+        i.setFlag(true);
+        EvolvedClass evolved = new EvolvedClass(false);
+        evolved.setTitle("bill");
+        UsesURL url = new UsesURL();
+        url.u = new URL("http://nowhere.net/");
+        HoldsObject explicit = new HoldsObject();
+        explicit.setPayload(new ArrayList<>(List.of(new Impl1("default"))));
+        for (Object o : List.of(c, new C("hello", false), i, evolved, new EvolvedClass(true), url, new UsesURL(), new UsesEnum(E.ZERO),
+                new UsesPrimitiveArrays(new int[] {1, 2}), new UsesBase(new Impl4(new Base[] {new Impl1("hello"), new Impl2()})),
+                new HoldsObject(), explicit)) {
+            UninstantiatedDescribable built = DescribableModel.uninstantiate2_(o);
+            StringBuilder expected = new StringBuilder();
+            built.accept(new Printer(expected));
+            StringBuilder streamed = new StringBuilder();
+            traverse(o, new Printer(streamed));
+            assertEquals(expected.toString(), streamed.toString(), o.getClass().getName());
+            assertEquals(built, lazily(o), o.getClass().getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void traverse(T o, DescribableVisitor visitor) throws IOException {
+        DescribableModel.of((Class<T>) o.getClass()).traverse(o, visitor);
+    }
+
+    /**
+     * The default payload is a list of an object without {@link Object#equals},
+     * so {@link DescribableModel#uninstantiate2(Object)} always keeps it.
+     */
+    public static final class HoldsObject {
+        private Object payload = new ArrayList<>(List.of(new Impl1("default")));
+        @DataBoundConstructor public HoldsObject() {}
+        public Object getPayload() {
+            return payload;
+        }
+        @DataBoundSetter public void setPayload(Object payload) {
+            this.payload = payload;
+        }
+    }
+
+    @Test
+    void compactArguments() {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        Map<String,?> args = DescribableModel.uninstantiate2_(new UsesBase(impl2)).getArguments();
+        assertEquals(ModelArguments.class, args.getClass());
+        assertEquals(Collections.singleton("base"), args.keySet());
+        Map<String,?> nested = ((UninstantiatedDescribable) args.get("base")).getArguments();
+        assertEquals(new TreeMap<>(map("flag", true)), nested);
+        assertEquals(nested.hashCode(), new TreeMap<>(nested).hashCode());
+        assertFalse(nested.containsKey("text"));
+        assertThrows(UnsupportedOperationException.class, () -> nested.remove("flag"));
+        assertEquals(TreeMap.class, roundtrip((Serializable) nested).getClass());
+    }
+
+    @Test
+    void uninstantiateLazily() {
+        EvolvedClass evolved = new EvolvedClass(false);
+        evolved.setTitle("bill");
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        for (Object o : List.of(evolved, new EvolvedClass(true), new UsesBase(impl2), new Impl2())) {
+            assertEquals(DescribableModel.uninstantiate2_(o), lazily(o));
+        }
+        Map<String,?> args = lazily(new UsesBase(impl2)).getArguments();
+        assertSame(args.get("base"), args.get("base"));
+        assertNull(args.get("nonexistent"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> UninstantiatedDescribable lazily(T o) {
+        return DescribableModel.of((Class<T>) o.getClass()).uninstantiateLazily(o);
+    }
+
+    @Test
+    void uninstantiatePaths() throws Exception {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        UsesBase o = new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2, new Impl2()}));
+        DescribableModel<UsesBase> model = DescribableModel.of(UsesBase.class);
+        assertEquals("(base=$Impl4(bases=[$Impl1(text=hello),$Impl2(),$Impl2()]))", print(model.uninstantiate2(o, List.of("base.bases[*].text"))));
+        assertEquals("(base=$Impl4(bases=[$Impl1(),$Impl2(flag=true),$Impl2()]))", print(model.uninstantiate2(o, List.of("base.bases.flag"))));
+        assertEquals(DescribableModel.uninstantiate2_(o), model.uninstantiate2(o, List.of("base", "base.bases.text")));
+        assertThrows(IllegalArgumentException.class, () -> model.uninstantiate2(o, List.of("nonexistent")));
+        assertThrows(IllegalArgumentException.class, () -> model.uninstantiate2(o, List.of("base..bases")));
+        // particular elements cannot be selected
+        assertThrows(IllegalArgumentException.class, () -> model.uninstantiate2(o, List.of("base.bases[1].flag")));
+        // a name is only rejected below a property which could not hold some other subtype having it
+        UsesBaseAndImpl1 both = new UsesBaseAndImpl1(new Impl1("one"), new Impl1("two"));
+        assertEquals("(base=$Impl1(),impl1=(text=two))", print(DescribableModel.of(UsesBaseAndImpl1.class).uninstantiate2(both, List.of("base.flag", "impl1.text"))));
+        assertThrows(IllegalArgumentException.class, () -> DescribableModel.of(UsesBaseAndImpl1.class).uninstantiate2(both, List.of("impl1.flag")));
+    }
+
+    private static String print(UninstantiatedDescribable ud) throws IOException {
+        StringBuilder b = new StringBuilder();
+        ud.accept(new Printer(b));
+        return b.toString();
+    }
+
+    @Test
+    void sharedObjectsUninstantiatedOnce() throws Exception {
+        Impl1 shared = new Impl1("hello");
+        UsesBase o = new UsesBase(new Impl4(new Base[] {shared, new Impl1("hello"), shared, shared}));
+        UninstantiatedDescribable ud = DescribableModel.uninstantiate2_(o);
+        List<?> bases = (List<?>) ((UninstantiatedDescribable) ud.getArguments().get("base")).getArguments().get("bases");
+        assertEquals(bases.get(0), bases.get(1));
+        assertEquals(bases.get(0), bases.get(2));
+        assertEquals("(base=$Impl4(bases=[$Impl1(text=hello),$Impl1(text=hello),$Impl1(text=hello),$Impl1(text=hello)]))", print(ud));
+        // still a modifiable tree, in which each reference can be edited on its own
+        assertFalse(ud.isFrozen());
+        assertNotSame(bases.get(0), bases.get(2));
+        ((UninstantiatedDescribable) bases.get(2)).setKlass("Impl2");
+        assertEquals("$Impl1(text=hello)", print((UninstantiatedDescribable) bases.get(0)));
+        assertFalse(((UninstantiatedDescribable) bases.get(0)).isFrozen());
+        // later references share the frozen arguments of the first
+        assertSame(((UninstantiatedDescribable) bases.get(2)).getArguments(), ((UninstantiatedDescribable) bases.get(3)).getArguments());
+        assertNotSame(((UninstantiatedDescribable) bases.get(0)).getArguments(), ((UninstantiatedDescribable) bases.get(2)).getArguments());
+        // the class is given for each reference according to its declared type
+        assertEquals("(base=$Impl1(text=hello),impl1=(text=hello))", print(DescribableModel.uninstantiate2_(new UsesBaseAndImpl1(shared, shared))));
+    }
+
+    @Test
+    void sharedObjectsWithDifferentDeclaredTypes() throws Exception {
+        Impl1 shared = new Impl1("hello");
+        assertEquals(DescribableModel.uninstantiate2_(new UsesBaseAndImpl1(new Impl1("hello"), new Impl1("hello"))),
+                DescribableModel.uninstantiate2_(new UsesBaseAndImpl1(shared, shared)));
+        assertEquals(DescribableModel.uninstantiate2_(new UsesImpl1AndBase(new Impl1("hello"), new Impl1("hello"))),
+                DescribableModel.uninstantiate2_(new UsesImpl1AndBase(shared, shared)));
+        assertEquals("(base=$Impl1(text=hello),impl1=(text=hello))", print(DescribableModel.uninstantiate2_(new UsesImpl1AndBase(shared, shared))));
+    }
+
+    @Test
+    void copy() {
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        Impl1 impl1 = new Impl1("hello");
+        UsesBase o = new UsesBase(new Impl4(new Base[] {impl1, impl2, new Impl2()}));
+        UsesBase copy = DescribableModel.of(UsesBase.class).copy(o);
+        assertEquals(o.toString(), copy.toString());
+        assertNotSame(impl1, ((Impl4) copy.base).getBases()[0]);
+        assertEquals(DescribableModel.uninstantiate2_(o), DescribableModel.uninstantiate2_(copy));
+        EvolvedClass evolved = new EvolvedClass(false);
+        evolved.setTitle("bill");
+        assertEquals(DescribableModel.uninstantiate2_(evolved), DescribableModel.uninstantiate2_(DescribableModel.of(EvolvedClass.class).copy(evolved)));
+    }
+
+    @Test
+    void structurallyEquals() {
+        DescribableModel<UsesBase> model = DescribableModel.of(UsesBase.class);
+        Impl2 impl2 = new Impl2();
+        impl2.setFlag(true);
+        UsesBase o = new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2}));
+        assertTrue(model.structurallyEquals(o, model.copy(o)));
+        assertTrue(model.structurallyEquals(o, new UsesBase(new Impl4(new Base[] {new Impl1("hello"), impl2}))));
+        assertFalse(model.structurallyEquals(o, new UsesBase(new Impl4(new Base[] {new Impl1("hello"), new Impl2()}))));
+        assertFalse(model.structurallyEquals(o, new UsesBase(new Impl4(new Base[] {new Impl1("hello")}))));
+        assertFalse(model.structurallyEquals(o, new UsesBase(impl2)));
+        assertTrue(DescribableModel.of(UsesPrimitiveArrays.class).structurallyEquals(new UsesPrimitiveArrays(new int[] {1, 2}), new UsesPrimitiveArrays(new int[] {1, 2})));
+    }
+
+    @Test
+    void boundedFailureMessage() {
+        String big = String.join("", Collections.nCopies(100000, "x"));
+        IllegalArgumentException x = assertThrows(IllegalArgumentException.class,
+                () -> instantiate(UsesBase.class, map("base", map(CLAZZ, "Impl4", "bases", Arrays.asList(
+                        map(CLAZZ, "Impl1", "text", big),
+                        map(CLAZZ, "Impl1", "text", 99))))));
+        String message = x.getMessage();
+        assertTrue(message.length() < 3000, message);
+        assertTrue(message.contains(UsesBase.class.getName() + " at base.bases[1].text: "), message);
+        assertTrue(message.contains("java.lang.Integer"), message);
+        assertSame(message, x.getMessage());
+    }
+
+    @Test
+    void failureMessageRenderedOnCreation() {
+        Map<String,Object> args = map("base", map(CLAZZ, "Impl1", "text", 99));
+        IllegalArgumentException x = assertThrows(IllegalArgumentException.class, () -> instantiate(UsesBase.class, args));
+        args.put("more", "later");
+        assertTrue(x.getMessage().contains("{base={$class=Impl1, text=99}} for "), x.getMessage());
+        // may only be traversed once, so not rendered at all
+        Iterator<String> it = Arrays.asList("a", "b").iterator();
+        Iterable<String> once = () -> it;
+        x = assertThrows(IllegalArgumentException.class, () -> instantiate(Impl1.class, map("text", once)));
+        assertTrue(x.getMessage().contains("{text=<"), x.getMessage());
+        assertTrue(it.hasNext());
+    }
+
+    @Test
+    void parallelCoercion() {
+        List<Map<String,Object>> bases = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            bases.add(map(CLAZZ, "Impl1", "text", "t" + i));
+        }
+        Map<String,Object> args = map("base", map(CLAZZ, "Impl4", "bases", bases));
+        String expected = instantiate(UsesBase.class, args).toString();
+        int threshold = DescribableModel.PARALLEL_COERCION_THRESHOLD;
+        DescribableModel.PARALLEL_COERCION_THRESHOLD = 2;
+        try {
+            assertEquals(expected, instantiate(UsesBase.class, args).toString());
+            bases.set(70, map(CLAZZ, "Impl1", "text", 70));
+            bases.set(30, map(CLAZZ, "Impl1", "text", 30));
+            IllegalArgumentException x = assertThrows(IllegalArgumentException.class, () -> instantiate(UsesBase.class, args));
+            assertTrue(x.getMessage().contains(" at base.bases[30].text: "), x.getMessage());
+        } finally {
+            DescribableModel.PARALLEL_COERCION_THRESHOLD = threshold;
+        }
+    }
+
+    @Test
+    void parallelUncoercion() {
+        Base[] bases = new Base[100];
+        Impl1 shared = new Impl1("shared");
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = i % 10 == 0 ? shared : new Impl1("t" + i);
+        }
+        UsesBase o = new UsesBase(new Impl4(bases));
+        UninstantiatedDescribable expected = DescribableModel.uninstantiate2_(o);
+        int threshold = DescribableModel.PARALLEL_UNCOERCION_THRESHOLD;
+        DescribableModel.PARALLEL_UNCOERCION_THRESHOLD = 2;
+        try {
+            UninstantiatedDescribable actual = DescribableModel.uninstantiate2_(o);
+            assertEquals(expected, actual);
+            assertEquals(expected.toString(), actual.toString());
+        } finally {
+            DescribableModel.PARALLEL_UNCOERCION_THRESHOLD = threshold;
+        }
+    }
+
+    @Test
+    void validate() {
+        assertEquals(Collections.emptyList(), DescribableModel.of(UsesBase.class).validate(map("base", map(CLAZZ, "Impl4", "bases", Arrays.asList(
+                map(CLAZZ, "Impl1", "text", "hello"),
+                map(CLAZZ, "Impl2", "flag", true))))));
+        assertEquals(Arrays.asList(
+                "base.bases[0].txt: unknown parameter for class type '" + Impl1.class.getName() + "'",
+                "base.bases[1]: java.lang.UnsupportedOperationException: no known implementation of " + Base.class + " is named Nonexistent"),
+                DescribableModel.of(UsesBase.class).validate(map("base", map(CLAZZ, "Impl4", "bases", Arrays.asList(
+                        map(CLAZZ, "Impl1", "txt", "hello"),
+                        map(CLAZZ, "Nonexistent"))))));
+        assertEquals(Collections.singletonList("e: expects one of [ZERO] but received ONE"), DescribableModel.of(UsesEnum.class).validate(map("e", "ONE")));
+        assertEquals(1, DescribableModel.of(UsesPrimitiveArrays.class).validate(map("numbers", Arrays.asList(1, "two"))).size());
+        assertEquals(Collections.singletonList("numbers[1]: expects int but received null"),
+                DescribableModel.of(UsesPrimitiveArrays.class).validate(map("numbers", Arrays.asList(1, null))));
+        assertEquals(Collections.singletonList("flag: expects boolean but received null"), DescribableModel.of(I.class).validate(map("value", "v", "flag", null)));
+    }
+
+    @Test
+    void instantiateFromReader() throws Exception {
+        Map<String,Object> args = map("base", map(CLAZZ, "Impl4", "bases", Arrays.asList(
+                map(CLAZZ, "Impl1", "text", "hello"),
+                map("flag", true, CLAZZ, "Impl2"))));
+        assertEquals(instantiate(UsesBase.class, args).toString(),
+                DescribableModel.of(UsesBase.class).instantiate(new TreeReader(args), null).toString());
+        assertEquals("UsesBase[Impl4[[Impl1[hello], Impl2[true]]]]",
+                DescribableModel.of(UsesBase.class).instantiate(new TreeReader(args), null).toString());
+        Map<String,Object> late = new LinkedHashMap<>();
+        late.put("text", "late");
+        late.put(CLAZZ, "Impl1");
+        assertEquals("UsesBase[Impl1[late]]",
+                DescribableModel.of(UsesBase.class).instantiate(new TreeReader(map("base", late)), null).toString());
+        UsesPrimitiveArrays o = DescribableModel.of(UsesPrimitiveArrays.class).instantiate(new TreeReader(map("numbers", Arrays.asList("4", 5))), null);
+        assertArrayEquals(new int[] {4, 5}, o.getNumbers());
+        IllegalArgumentException x = assertThrows(IllegalArgumentException.class,
+                () -> DescribableModel.of(I.class).instantiate(new TreeReader(map("value", 99)), null));
+        assertTrue(x.getMessage().contains("java.lang.Integer"), x.getMessage());
+    }
+
+    @Test
+    void instantiateFromReaderLateClass() throws Exception {
+        Map<String,Object> child = new LinkedHashMap<>();
+        child.put("text", "hello");
+        child.put("extra", "more");
+        child.put(CLAZZ, Child.class.getName());
+        Map<String,Object> args = map("parent", child);
+        assertEquals("UsesParent[Child[hello/more]]", instantiate(UsesParent.class, args).toString());
+        assertEquals("UsesParent[Child[hello/more]]", DescribableModel.of(UsesParent.class).instantiate(new TreeReader(args), null).toString());
+        assertEquals("UsesParent[Parent[hello]]", DescribableModel.of(UsesParent.class).instantiate(new TreeReader(map("parent", map("text", "hello"))), null).toString());
+        // like any other unknown parameter at top level
+        Map<String,Object> top = map(CLAZZ, I.class.getName(), "value", "v");
+        assertThrows(IllegalArgumentException.class, () -> instantiate(I.class, top));
+        assertThrows(IllegalArgumentException.class, () -> DescribableModel.of(I.class).instantiate(new TreeReader(top), null));
+    }
+
+    public static final class UsesParent {
+        private final Parent parent;
+        @DataBoundConstructor public UsesParent(Parent parent) {
+            this.parent = parent;
+        }
+        public Parent getParent() {
+            return parent;
+        }
+        @Override public String toString() {
+            return "UsesParent[" + parent + "]";
+        }
+    }
+
+    public static class Parent {
+        private final String text;
+        @DataBoundConstructor public Parent(String text) {
+            this.text = text;
+        }
+        public String getText() {
+            return text;
+        }
+        @Override public String toString() {
+            return "Parent[" + text + "]";
+        }
+    }
+
+    public static final class Child extends Parent {
+        private String extra;
+        @DataBoundConstructor public Child(String text) {
+            super(text);
+        }
+        public String getExtra() {
+            return extra;
+        }
+        @DataBoundSetter public void setExtra(String extra) {
+            this.extra = extra;
+        }
+        @Override public String toString() {
+            return "Child[" + getText() + "/" + extra + "]";
+        }
+    }
+
+    /**
+     * Reads a tree of maps and lists as a stream of tokens.
+     */
+    private static final class TreeReader implements ArgumentReader {
+        private final List<Object> tokens = new ArrayList<>();
+        private int i;
+        TreeReader(Map<String,?> m) {
+            add(m);
+        }
+        private void add(Object o) {
+            if (o instanceof Map<?,?> m) {
+                tokens.add(Token.BEGIN_OBJECT);
+                for (Map.Entry<?,?> e : m.entrySet()) {
+                    tokens.add(Token.NAME);
+                    tokens.add(e.getKey());
+                    add(e.getValue());
+                }
+                tokens.add(Token.END_OBJECT);
+            } else if (o instanceof List<?> l) {
+                tokens.add(Token.BEGIN_ARRAY);
+                l.forEach(this::add);
+                tokens.add(Token.END_ARRAY);
+            } else {
+                tokens.add(Token.VALUE);
+                tokens.add(o);
+            }
+        }
+        private Object next(Token expected) {
+            assertEquals(expected, peek());
+            i++;
+            return expected == Token.NAME || expected == Token.VALUE ? tokens.get(i++) : null;
+        }
+        @Override public Token peek() {
+            return (Token) tokens.get(i);
+        }
+        @Override public void beginObject() {
+            next(Token.BEGIN_OBJECT);
+        }
+        @Override public void endObject() {
+            next(Token.END_OBJECT);
+        }
+        @Override public void beginArray() {
+            next(Token.BEGIN_ARRAY);
+        }
+        @Override public void endArray() {
+            next(Token.END_ARRAY);
+        }
+        @Override public String nextName() {
+            return (String) next(Token.NAME);
+        }
+        @Override public Object nextValue() {
+            return next(Token.VALUE);
+        }
+    }
+
+    private static final class Printer implements DescribableVisitor {
+        private final StringBuilder b;
+        Printer(StringBuilder b) {
+            this.b = b;
+        }
+        private void value() {
+            if (b.length() > 0 && b.charAt(b.length() - 1) != '=' && b.charAt(b.length() - 1) != '[') {
+                b.append(',');
+            }
+        }
+        @Override public void beginObject(String symbol, String klass, DescribableModel<?> model) {
+            value();
+            if (symbol != null) {
+                b.append('@').append(symbol);
+            }
+            if (klass != null) {
+                b.append('$').append(klass);
+            }
+            b.append('(');
+        }
+        @Override public void property(String name) {
+            if (b.charAt(b.length() - 1) != '(') {
+                b.append(',');
+            }
+            b.append(name).append('=');
+        }
+        @Override public void beginList(int size) {
+            value();
+            b.append('[');
+        }
+        @Override public void endList() {
+            b.append(']');
+        }
+        @Override public void scalar(Object value) {
+            value();
+            b.append(value);
+        }
+        @Override public void endObject() {
+            b.append(')');
+        }
+    }
+
     public static class UsesBase {
         public final Base base;
         @DataBoundConstructor public UsesBase(Base base) {
@@ -252,6 +797,24 @@ class DescribableModelTest {
         }
     }
 
+    public static class UsesBaseAndImpl1 {
+        public final Base base;
+        public final Impl1 impl1;
+        @DataBoundConstructor public UsesBaseAndImpl1(Base base, Impl1 impl1) {
+            this.base = base;
+            this.impl1 = impl1;
+        }
+    }
+
+    public static class UsesImpl1AndBase {
+        public final Impl1 impl1;
+        public final Base base;
+        @DataBoundConstructor public UsesImpl1AndBase(Impl1 impl1, Base base) {
+            this.impl1 = impl1;
+            this.base = base;
+        }
+    }
+
     public abstract static class Base extends AbstractDescribableImpl<Base> {}
 
     public interface Marker {}
@@ -447,6 +1010,65 @@ class DescribableModelTest {
         schema(UsesStringList.class, "UsesStringList(strings: String[])");
     }
 
+    @Test
+    void primitiveArray() {
+        roundTrip(UsesPrimitiveArrays.class, map("numbers", Arrays.asList(1, 2, 3), "flags", Arrays.asList(true, false)));
+        schema(UsesPrimitiveArrays.class, "UsesPrimitiveArrays(numbers: int[], flags?: boolean[])");
+        UsesPrimitiveArrays o = instantiate(UsesPrimitiveArrays.class, map("numbers", Arrays.asList("4", 5)));
+        assertArrayEquals(new int[] {4, 5}, o.getNumbers());
+        assertThrows(IllegalArgumentException.class, () -> instantiate(UsesPrimitiveArrays.class, map("numbers", Arrays.asList(1, null))));
+    }
+
+    public static final class UsesPrimitiveArrays {
+        private final int[] numbers;
+        private boolean[] flags;
+        @DataBoundConstructor public UsesPrimitiveArrays(int[] numbers) {
+            this.numbers = numbers;
+        }
+        public int[] getNumbers() {
+            return numbers;
+        }
+        public boolean[] getFlags() {
+            return flags;
+        }
+        @DataBoundSetter public void setFlags(boolean[] flags) {
+            this.flags = flags;
+        }
+    }
+
+    @Test
+    void collectionLikeArguments() {
+        assertEquals(Arrays.asList("one", "two"), instantiate(UsesStringList.class, map("strings", new LinkedHashSet<>(Arrays.asList("one", "two")))).getStrings());
+        assertEquals(Arrays.asList("one", "two"), instantiate(UsesStringList.class, map("strings", new String[] {"one", "two"})).getStrings());
+        assertArrayEquals(new String[] {"one", "two"}, instantiate(UsesStringArray.class, map("strings", Stream.of("one", "two"))).getStrings());
+        assertArrayEquals(new int[] {1, 2}, instantiate(UsesPrimitiveArrays.class, map("numbers", new TreeSet<>(Arrays.asList(2, 1)))).getNumbers());
+    }
+
+    @Test
+    void fittingCollectionsPassedAsIs() {
+        TreeSet<String> reversed = new TreeSet<>(Collections.reverseOrder());
+        reversed.addAll(Arrays.asList("one", "two"));
+        assertSame(reversed, instantiate(UsesStringSet.class, map("strings", reversed)).getStrings());
+        List<String> list = new ArrayList<>(Arrays.asList("one", "two"));
+        assertSame(list, instantiate(UsesStringList.class, map("strings", list)).getStrings());
+        // only copied once some item is coerced
+        List<Object> mixed = new ArrayList<>(Arrays.asList("one", new GStringImpl(new Object[0], new String[] {"two"})));
+        List<String> coerced = instantiate(UsesStringList.class, map("strings", mixed)).getStrings();
+        assertNotSame(mixed, coerced);
+        assertEquals(Arrays.asList("one", "two"), coerced);
+        assertEquals(String.class, coerced.get(1).getClass());
+    }
+
+    public static final class UsesStringSet {
+        private final Set<String> strings;
+        @DataBoundConstructor public UsesStringSet(Set<String> strings) {
+            this.strings = strings;
+        }
+        public Set<String> getStrings() {
+            return strings;
+        }
+    }
+
     public static final class UsesStringArray {
         private final String[] strings;
         @DataBoundConstructor public UsesStringArray(String[] strings) {
@@ -467,6 +1089,44 @@ class DescribableModelTest {
         }
     }
 
+    @Test
+    void copyCoercesMismatchedGetters() {
+        MismatchedGetters o = new MismatchedGetters(new String[] {"one", "two"});
+        o.setTags(new LinkedHashSet<>(List.of("b", "a")));
+        MismatchedGetters copy = DescribableModel.of(MismatchedGetters.class).copy(o);
+        assertNotSame(o, copy);
+        assertEquals(List.of("one", "two"), copy.getStrings());
+        assertEquals(List.of("b", "a"), copy.getTags());
+    }
+
+    public static final class MismatchedGetters {
+        private final String[] strings;
+        private Set<String> tags = new LinkedHashSet<>();
+        @DataBoundConstructor public MismatchedGetters(String[] strings) {
+            this.strings = strings.clone();
+        }
+        public List<String> getStrings() {
+            return Arrays.asList(strings);
+        }
+        public List<String> getTags() {
+            return new ArrayList<>(tags);
+        }
+        @DataBoundSetter public void setTags(Set<String> tags) {
+            this.tags = new LinkedHashSet<>(tags);
+        }
+    }
+
+    @Test
+    void records() {
+        roundTrip(UsesRecord.class, map("count", 3, "label", "here"), "UsesRecord[count=3, label=here]");
+        schema(UsesRecord.class, "UsesRecord(count: int, label: String)");
+        assertEquals(new UsesRecord(0, null), instantiate(UsesRecord.class, map()));
+    }
+
+    public record UsesRecord(int count, String label) {
+        @DataBoundConstructor public UsesRecord {}
+    }
+
     @Test
     void structArrayHomo() {
         roundTrip(UsesStructArrayHomo.class, map("impls", Arrays.asList(map(), map("flag", true))), "UsesStructArrayHomo[Impl2[false], Impl2[true]]");
@@ -0,0 +1,76 @@
+package org.jenkinsci.plugins.structs.describable;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.LogRecorder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+@WithJenkins
+class RepeatedWarningsTest {
+
+    private final LogRecorder logging = new LogRecorder().record(DescribableModel.class, Level.WARNING).capture(20);
+
+    private final long interval = RepeatedWarnings.INTERVAL;
+
+    @AfterEach
+    void restoreInterval() {
+        RepeatedWarnings.INTERVAL = interval;
+    }
+
+    @Test
+    void repeatsSummarized(JenkinsRule r) throws Exception {
+        RepeatedWarnings.INTERVAL = 1000;
+        DescribableModel<Unbuildable> model = DescribableModel.of(Unbuildable.class);
+        for (int i = 0; i < 3; i++) {
+            assertNull(model.control(Map.of("text", "hello")));
+        }
+        List<String> messages = controlWarnings();
+        assertEquals(1, messages.size(), messages::toString);
+        assertThat(messages.get(0), not(containsString("suppressed")));
+        Thread.sleep(1100);
+        assertNull(model.control(Map.of("text", "hello")));
+        messages = controlWarnings();
+        assertEquals(2, messages.size(), messages::toString);
+        assertThat(messages.get(1), containsString("(2 similar warnings were suppressed since the last one)"));
+    }
+
+    @Test
+    void keysForgottenBeyondLimit(JenkinsRule r) {
+        RepeatedWarnings.INTERVAL = 60_000;
+        RepeatedWarnings warnings = new RepeatedWarnings();
+        assertEquals(0, warnings.occurred("k"));
+        assertEquals(-1, warnings.occurred("k"));
+        assertEquals(-1, warnings.occurred("k"));
+        for (int i = 0; i <= RepeatedWarnings.MAX_KEYS; i++) {
+            assertEquals(0, warnings.occurred("other" + i));
+        }
+        // the map was cleared, so this counts as a first occurrence and the earlier suppressed ones are lost
+        assertEquals(0, warnings.occurred("k"));
+        assertEquals(-1, warnings.occurred("k"));
+    }
+
+    private List<String> controlWarnings() {
+        return logging.getMessages().stream().filter(m -> m.contains(Unbuildable.class.getName())).collect(Collectors.toList());
+    }
+
+    public static final class Unbuildable {
+        @DataBoundConstructor public Unbuildable(String text) {
+            throw new IllegalStateException("cannot build " + text);
+        }
+        public String getText() {
+            return null;
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package org.jenkinsci.plugins.structs.describable;
 
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Kohsuke Kawaguchi
@@ -23,6 +38,220 @@ class UninstantiatedDescribableTest {
         assertEquals(make().hashCode(),make().hashCode());
     }
 
+    @Test
+    void freeze() {
+        UninstantiatedDescribable ud = (UninstantiatedDescribable) make();
+        Map<String, Object> args = new TreeMap<>();
+        args.put("nested", ud);
+        args.put("list", new ArrayList<>(List.of(ud)));
+        UninstantiatedDescribable outer = new UninstantiatedDescribable(args);
+        UninstantiatedDescribable frozen = outer.freeze();
+        assertTrue(frozen.isFrozen());
+        assertFalse(outer.isFrozen());
+        assertSame(frozen, frozen.freeze());
+        assertEquals(outer, frozen);
+        assertEquals(outer.hashCode(), frozen.hashCode());
+        assertEquals(frozen, outer.freeze());
+        assertNotEquals(frozen, new UninstantiatedDescribable("other", null, args).freeze());
+        assertTrue(((UninstantiatedDescribable) frozen.getArguments().get("nested")).isFrozen());
+        assertThrows(IllegalStateException.class, () -> frozen.setSymbol("other"));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) frozen.getArguments().get("list")).clear());
+        assertFalse(frozen.withArguments(args).isFrozen());
+    }
+
+    @Test
+    void fingerprint() {
+        UninstantiatedDescribable ud = (UninstantiatedDescribable) make();
+        assertEquals(64, ud.fingerprint().length());
+        assertEquals(ud.fingerprint(), ((UninstantiatedDescribable) make()).freeze().fingerprint());
+        Map<String, Object> args = new TreeMap<>(ud.getArguments());
+        args.put("x", 4L);
+        assertNotEquals(ud.fingerprint(), ud.withArguments(args).fingerprint());
+        UninstantiatedDescribable outer = new UninstantiatedDescribable(Map.of("nested", ud)).freeze();
+        assertEquals(outer.fingerprint(), outer.fingerprint());
+        assertNotEquals(outer.fingerprint(), new UninstantiatedDescribable(Map.of("nested", ud.withArguments(args))).fingerprint());
+        assertNotEquals(new UninstantiatedDescribable(Map.of("x", 1)).fingerprint(), new UninstantiatedDescribable(Map.of("x", 1L)).fingerprint());
+        assertNotEquals(new UninstantiatedDescribable(Map.of("x", 0.0)).fingerprint(), new UninstantiatedDescribable(Map.of("x", -0.0)).fingerprint());
+        // keys 1 and "1" would look alike
+        assertThrows(UnsupportedOperationException.class, () -> new UninstantiatedDescribable(Map.of("x", Map.of(1, "one"))).fingerprint());
+        // as would any two objects with the same toString
+        assertThrows(UnsupportedOperationException.class, () -> new UninstantiatedDescribable(Map.of("x", new StringBuilder("one"))).fingerprint());
+        assertThrows(UnsupportedOperationException.class, () -> new UninstantiatedDescribable(Map.of("nested", new UninstantiatedDescribable(Map.of("x", new Object())))).fingerprint());
+    }
+
+    @Test
+    void serialization() {
+        UninstantiatedDescribable ud = (UninstantiatedDescribable) make();
+        UninstantiatedDescribable outer = new UninstantiatedDescribable(Map.of("nested", ud, "list", List.of(ud)));
+        UninstantiatedDescribable copy = SerializationUtils.roundtrip(outer);
+        assertEquals(outer, copy);
+        assertFalse(copy.isFrozen());
+        UninstantiatedDescribable nested = (UninstantiatedDescribable) copy.getArguments().get("nested");
+        assertSame("symbol", nested.getSymbol());
+        assertSame(nested.getKlass(), ((UninstantiatedDescribable) ((List<?>) copy.getArguments().get("list")).get(0)).getKlass());
+        UninstantiatedDescribable frozen = SerializationUtils.roundtrip(outer.freeze());
+        assertTrue(frozen.isFrozen());
+        assertEquals(outer, frozen);
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getArguments().clear());
+    }
+
+    @Test
+    void codec() throws Exception {
+        UninstantiatedDescribable ud = (UninstantiatedDescribable) make();
+        Map<String, Object> args = new TreeMap<>();
+        args.put("nested", ud);
+        args.put("list", List.of(ud, "x", -1L, 2.5, 'c', Boolean.FALSE));
+        args.put("nothing", null);
+        UninstantiatedDescribable outer = new UninstantiatedDescribable("outer", null, args);
+        ByteBuffer encoded = UninstantiatedDescribableCodec.encode(outer);
+        assertEquals(outer, UninstantiatedDescribableCodec.decode(encoded));
+        assertFalse(encoded.hasRemaining());
+        UninstantiatedDescribable frozen = UninstantiatedDescribableCodec.decode(UninstantiatedDescribableCodec.encode(outer.freeze()));
+        assertTrue(frozen.isFrozen());
+        assertEquals(outer.fingerprint(), frozen.fingerprint());
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoded.flip().remaining()).put(encoded).flip();
+        assertEquals(outer, UninstantiatedDescribableCodec.decode(direct));
+        assertEquals(outer, UninstantiatedDescribableCodec.decode(encoded.rewind().order(ByteOrder.LITTLE_ENDIAN)));
+        assertEquals(ByteOrder.LITTLE_ENDIAN, encoded.order());
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(ByteBuffer.wrap(new byte[] {0x55, 0x44, 2})));
+        // a string table larger than the buffer could hold
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(ByteBuffer.wrap(new byte[] {0x55, 0x44, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07})));
+        // an enum value of a class which is no enum
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(encoded("java.lang.String", "x", 0, 0, 0, 0, 1, 2, 11, 1, 2)));
+        // a model which is not data-bound
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(encoded("java.lang.Object", 0, 0, 1, 0, 0)));
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(encoded("java.lang.Thread", 0, 0, 1, 0, 0)));
+        // lists nested too deeply for the stack
+        List<Object> deep = new ArrayList<>(List.of("k", 0, 0, 0, 0, 1, 1));
+        for (int i = 0; i < 100_000; i++) {
+            deep.add(13);
+            deep.add(1);
+        }
+        deep.add(0);
+        assertThrows(IOException.class, () -> UninstantiatedDescribableCodec.decode(encoded(deep.toArray())));
+        assertThrows(IllegalArgumentException.class, () -> UninstantiatedDescribableCodec.encode(new UninstantiatedDescribable(Map.of("o", new Object()))));
+    }
+
+    /**
+     * Encodes a string table followed by the given bytes.
+     */
+    private static ByteBuffer encoded(Object... stringsThenBytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x55);
+        out.write(0x44);
+        out.write(UninstantiatedDescribableCodec.VERSION);
+        int strings = 0;
+        while (stringsThenBytes[strings] instanceof String) {
+            strings++;
+        }
+        out.write(strings);
+        for (Object o : stringsThenBytes) {
+            if (o instanceof String) {
+                byte[] b = ((String) o).getBytes(StandardCharsets.UTF_8);
+                out.write(b.length);
+                out.write(b, 0, b.length);
+            } else {
+                out.write((Integer) o);
+            }
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @Test
+    void interning() {
+        boolean interning = UninstantiatedDescribable.INTERNING;
+        UninstantiatedDescribable.INTERNING = true;
+        try {
+            UninstantiatedDescribable a = ((UninstantiatedDescribable) make()).freeze();
+            UninstantiatedDescribable b = ((UninstantiatedDescribable) make()).freeze();
+            assertNotSame(a, b);
+            assertSame(a.intern(), b.intern());
+            ArrayList<UninstantiatedDescribable> copy = SerializationUtils.roundtrip(new ArrayList<>(List.of(a, b)));
+            assertSame(copy.get(0), copy.get(1));
+            UninstantiatedDescribable mutable = (UninstantiatedDescribable) make();
+            assertSame(mutable, mutable.intern());
+            UninstantiatedDescribable outer = new UninstantiatedDescribable(Map.of("x", make(), "y", make())).freeze();
+            assertSame(outer.getArguments().get("x"), outer.getArguments().get("y"));
+            // raw values which merely print alike must not be merged
+            UninstantiatedDescribable c = new UninstantiatedDescribable(Map.of("x", new Same(1))).freeze();
+            UninstantiatedDescribable d = new UninstantiatedDescribable(Map.of("x", new Same(2))).freeze();
+            assertNotEquals(c, d);
+            assertSame(c, c.intern());
+            assertSame(d, d.intern());
+            outer = new UninstantiatedDescribable(Map.of("x", c, "y", d)).freeze();
+            assertEquals(c, outer.getArguments().get("x"));
+            assertEquals(d, outer.getArguments().get("y"));
+        } finally {
+            UninstantiatedDescribable.INTERNING = interning;
+        }
+    }
+
+    private static final class Same {
+        private final int id;
+
+        Same(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Same && ((Same) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return "same";
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void toMap() {
+        UninstantiatedDescribable ud = (UninstantiatedDescribable) make();
+        Map<String, Object> args = new TreeMap<>();
+        args.put("nested", ud);
+        args.put("list", List.of(ud, "x"));
+        Map<String, Object> map = new UninstantiatedDescribable(null, "Outer", args).toMap();
+        Map<String, Object> nested = new TreeMap<>(ud.getArguments());
+        nested.put("$class", "class");
+        Map<String, Object> expected = new TreeMap<>();
+        expected.put("$class", "Outer");
+        expected.put("list", List.of(nested, "x"));
+        expected.put("nested", nested);
+        assertEquals(expected, map);
+        assertEquals(expected.toString(), map.toString());
+        assertEquals(List.of("$class", "list", "nested"), new ArrayList<>(map.keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("x", 1));
+        Map<String, Object> shallow = ud.withArguments(args).toShallowMap();
+        assertEquals(List.of("$class", "list", "nested"), new ArrayList<>(shallow.keySet()));
+        assertSame(ud, shallow.get("nested"));
+        // views are written out as the maps and lists they stand for
+        Map<?, ?> copy = (Map<?, ?>) SerializationUtils.roundtrip((Serializable) map);
+        assertEquals(expected, copy);
+        assertEquals(TreeMap.class, copy.getClass());
+        assertEquals(ArrayList.class, copy.get("list").getClass());
+        assertEquals(TreeMap.class, ((List<?>) copy.get("list")).get(0).getClass());
+        assertEquals(shallow, SerializationUtils.roundtrip((Serializable) shallow));
+        // a view of a modifiable struct follows it
+        UninstantiatedDescribable modifiable = new UninstantiatedDescribable(new TreeMap<>(Map.of("x", 1)));
+        Map<String, Object> view = modifiable.toMap();
+        assertEquals(List.of("x"), new ArrayList<>(view.keySet()));
+        modifiable.setKlass("K");
+        assertEquals(List.of("$class", "x"), new ArrayList<>(view.keySet()));
+        assertEquals(Map.of("$class", "K", "x", 1), view);
+        // the deprecated form is a modifiable copy
+        Map<String, Object> copy2 = new UninstantiatedDescribable(null, "Outer", args).toMutableMap();
+        assertEquals(expected, copy2);
+        copy2.remove("$class");
+        ((Map<String, Object>) copy2.get("nested")).put("z", true);
+        ((List<Object>) copy2.get("list")).add("y");
+    }
+
     private Object make() {
         Map<String, Object> args = new TreeMap<>();
         args.put("x", 4);